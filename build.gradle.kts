@@ -7,6 +7,7 @@ plugins {
   id("maven-publish")
   alias(libs.plugins.spotless)
   alias(libs.plugins.nexusPublish)
+  alias(libs.plugins.jmh)
 }
 
 defaultTasks("build", "test", "jar")
@@ -26,6 +27,7 @@ dependencies {
   compileOnly(libs.annotations)
   // testing
   testImplementation(libs.bundles.junit)
+  testAnnotationProcessor(project(":gulf-processor"))
 }
 
 tasks.withType<JavaCompile> {
@@ -36,6 +38,43 @@ tasks.withType<JavaCompile> {
   options.isIncremental = true
 }
 
+// java 9+ replacements of classes, packaged into the jar as a multi-release jar
+val java9: SourceSet by sourceSets.creating {
+  java.srcDir("src/main/java9")
+  compileClasspath += sourceSets.main.get().compileClasspath + sourceSets.main.get().output
+}
+
+tasks.named<JavaCompile>(java9.compileJavaTaskName) {
+  sourceCompatibility = JavaVersion.VERSION_1_9.toString()
+  targetCompatibility = JavaVersion.VERSION_1_9.toString()
+  options.release.set(9)
+}
+
+// java 21+ replacements of classes, packaged into the jar the same way
+val java21: SourceSet by sourceSets.creating {
+  java.srcDir("src/main/java21")
+  compileClasspath += sourceSets.main.get().compileClasspath + sourceSets.main.get().output
+}
+
+tasks.named<JavaCompile>(java21.compileJavaTaskName) {
+  sourceCompatibility = JavaVersion.VERSION_21.toString()
+  targetCompatibility = JavaVersion.VERSION_21.toString()
+  options.release.set(21)
+}
+
+tasks.named<Jar>("jar") {
+  into("META-INF/versions/9") {
+    from(java9.output)
+  }
+  into("META-INF/versions/21") {
+    from(java21.output)
+  }
+
+  manifest {
+    attributes("Multi-Release" to "true")
+  }
+}
+
 tasks.getByName<Test>("test") {
   useJUnitPlatform()
 }
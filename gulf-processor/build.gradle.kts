@@ -0,0 +1,104 @@
+import com.diffplug.gradle.spotless.SpotlessExtension
+
+plugins {
+  id("signing")
+  id("checkstyle")
+  id("java-library")
+  id("maven-publish")
+  id("com.diffplug.spotless")
+}
+
+version = rootProject.version
+group = rootProject.group
+
+repositories {
+  mavenCentral()
+}
+
+dependencies {
+  // testing, the generated sources are compiled against gulf
+  testImplementation(rootProject)
+  testImplementation(libs.bundles.junit)
+}
+
+tasks.withType<JavaCompile> {
+  sourceCompatibility = JavaVersion.VERSION_1_8.toString()
+  targetCompatibility = JavaVersion.VERSION_1_8.toString()
+  // options
+  options.encoding = "UTF-8"
+  options.isIncremental = true
+}
+
+tasks.getByName<Test>("test") {
+  useJUnitPlatform()
+}
+
+tasks.withType<Checkstyle> {
+  maxErrors = 0
+  maxWarnings = 0
+  configFile = rootProject.file("checkstyle.xml")
+}
+
+extensions.configure<SpotlessExtension> {
+  java {
+    licenseHeaderFile(rootProject.file("license_header.txt"))
+  }
+}
+
+extensions.configure<JavaPluginExtension> {
+  withSourcesJar()
+  withJavadocJar()
+}
+
+extensions.configure<CheckstyleExtension> {
+  toolVersion = libs.versions.checkstyleTools.get()
+}
+
+extensions.configure<PublishingExtension> {
+  publications {
+    create("library", MavenPublication::class.java) {
+      from(project.components.getByName("java"))
+
+      pom {
+        name.set(project.name)
+        url.set("https://github.com/derklaro/gulf")
+        description.set("Annotation processor generating reflection free diff finders for gulf")
+
+        licenses {
+          license {
+            name.set("MIT License")
+            url.set("https://opensource.org/licenses/MIT")
+          }
+        }
+
+        developers {
+          developer {
+            name.set("Pasqual Koschmieder")
+            email.set("git@derklaro.dev")
+          }
+        }
+
+        scm {
+          url.set("https://github.com/derklaro/gulf")
+          connection.set("https://github.com/derklaro/gulf.git")
+        }
+
+        issueManagement {
+          system.set("GitHub Issues")
+          url.set("https://github.com/derklaro/gulf/issues")
+        }
+      }
+    }
+  }
+}
+
+tasks.withType<Sign> {
+  onlyIf {
+    !project.rootProject.version.toString().endsWith("-SNAPSHOT")
+  }
+}
+
+extensions.configure<SigningExtension> {
+  useGpgCmd()
+  sign(extensions.getByType(PublishingExtension::class.java).publications["library"])
+}
@@ -0,0 +1,348 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+final class DiffFinderSourceWriter {
+
+  private static final String FINDER_SUFFIX = "_GulfDiffFinder";
+
+  private final Types types;
+  private final Elements elements;
+  private final TypeElement type;
+
+  private final String packageName;
+  private final String finderName;
+
+  DiffFinderSourceWriter(ProcessingEnvironment processingEnv, TypeElement type) {
+    this.type = type;
+    this.types = processingEnv.getTypeUtils();
+    this.elements = processingEnv.getElementUtils();
+
+    // nested classes are flattened into the package of the outermost class: Outer.Inner -> Outer_Inner_GulfDiffFinder
+    this.packageName = this.elements.getPackageOf(type).getQualifiedName().toString();
+    StringBuilder finderName = new StringBuilder(type.getSimpleName());
+    Element enclosing = type.getEnclosingElement();
+    while (enclosing instanceof TypeElement) {
+      finderName.insert(0, enclosing.getSimpleName() + "_");
+      enclosing = enclosing.getEnclosingElement();
+    }
+    this.finderName = finderName.append(FINDER_SUFFIX).toString();
+  }
+
+  private static boolean isPrimitive(TypeMirror type) {
+    return type.getKind().isPrimitive();
+  }
+
+  private static String capitalize(String name) {
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  public String finderBinaryName() {
+    return this.packageName.isEmpty() ? this.finderName : this.packageName + '.' + this.finderName;
+  }
+
+  public String generateSource() throws GenerationException {
+    // the generated class lives next to the target type, so it must at least be package visible
+    for (Element current = this.type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+      if (current.getModifiers().contains(Modifier.PRIVATE)) {
+        throw new GenerationException(this.type, "@GulfDiffable classes and their enclosing classes must not be private");
+      }
+    }
+
+    String targetType = this.erasedName(this.type.asType());
+    List<FieldAccess> fields = this.collectFields();
+
+    StringBuilder source = new StringBuilder();
+    if (!this.packageName.isEmpty()) {
+      source.append("package ").append(this.packageName).append(";\n\n");
+    }
+
+    source.append("// generated by ").append(GulfDiffableProcessor.class.getName()).append(", do not edit\n");
+
+    source
+      .append("@SuppressWarnings(\"rawtypes\")\n")
+      .append("public final class ").append(this.finderName)
+      .append(" implements dev.derklaro.gulf.finder.GeneratedDiffFinder {\n\n");
+
+    // the declared type of each reference field, used to select the diff finder for the field value
+    for (int i = 0; i < fields.size(); i++) {
+      FieldAccess field = fields.get(i);
+      if (!isPrimitive(field.type)) {
+        source
+          .append("  private static final java.lang.reflect.Type TYPE_").append(i).append(" = ")
+          .append(this.typeExpression(field)).append(";\n");
+      }
+    }
+
+    source
+      .append('\n')
+      .append("  private static java.lang.reflect.Type genericType(Class<?> declaringClass, String fieldName) {\n")
+      .append("    try {\n")
+      .append("      return declaringClass.getDeclaredField(fieldName).getGenericType();\n")
+      .append("    } catch (NoSuchFieldException exception) {\n")
+      .append("      throw new IllegalStateException(\"Field \" + fieldName + \" vanished from \" + declaringClass, exception);\n")
+      .append("    }\n")
+      .append("  }\n\n")
+      .append("  @Override\n")
+      .append("  public Class<?> targetType() {\n")
+      .append("    return ").append(targetType).append(".class;\n")
+      .append("  }\n\n");
+
+    // findChangesNullSafe
+    source
+      .append("  @Override\n")
+      .append("  public void findChangesNullSafe(\n")
+      .append("    dev.derklaro.gulf.Gulf gulf,\n")
+      .append("    dev.derklaro.gulf.path.ObjectPath path,\n")
+      .append("    java.lang.reflect.Type fullType,\n")
+      .append("    Object left,\n")
+      .append("    Object right,\n")
+      .append("    dev.derklaro.gulf.diff.ChangeSink<Object> sink\n")
+      .append("  ) {\n")
+      .append("    ").append(targetType).append(" l = (").append(targetType).append(") left;\n")
+      .append("    ").append(targetType).append(" r = (").append(targetType).append(") right;\n")
+      .append("    dev.derklaro.gulf.path.ObjectPath frame = path.newFrame();\n");
+    for (int i = 0; i < fields.size(); i++) {
+      FieldAccess field = fields.get(i);
+      String fieldPath = "frame.moveFrame(\"" + field.name + "\")";
+      // the remaining fields are skipped once the limits of a bounded call were reached
+      source
+        .append("    if (dev.derklaro.gulf.limit.DiffBudget.exhausted(path)) {\n")
+        .append("      return;\n")
+        .append("    }\n");
+      this.appendFieldRead(source, field, i);
+      if (isPrimitive(field.type)) {
+        // primitives are compared inline, the registered diff finder is only called to report a change
+        source
+          .append("    if (").append(this.primitiveDiffers(field, i)).append(") {\n")
+          .append("      gulf.findChanges(").append(this.primitiveName(field.type)).append(".class, ").append(fieldPath)
+          .append(", left").append(i).append(", right").append(i).append(", sink);\n")
+          .append("    }\n");
+      } else {
+        source
+          .append("    gulf.findChanges(TYPE_").append(i).append(", ").append(fieldPath).append(", ")
+          .append(this.defaulted("left", i)).append(", ").append(this.defaulted("right", i)).append(", sink);\n");
+      }
+    }
+    source.append("  }\n\n");
+
+    // hasChangesNullSafe
+    source
+      .append("  @Override\n")
+      .append("  public boolean hasChangesNullSafe(\n")
+      .append("    dev.derklaro.gulf.Gulf gulf,\n")
+      .append("    dev.derklaro.gulf.path.ObjectPath path,\n")
+      .append("    java.lang.reflect.Type fullType,\n")
+      .append("    Object left,\n")
+      .append("    Object right\n")
+      .append("  ) {\n")
+      .append("    ").append(targetType).append(" l = (").append(targetType).append(") left;\n")
+      .append("    ").append(targetType).append(" r = (").append(targetType).append(") right;\n");
+    for (int i = 0; i < fields.size(); i++) {
+      FieldAccess field = fields.get(i);
+      this.appendFieldRead(source, field, i);
+      if (isPrimitive(field.type)) {
+        source.append("    if (").append(this.primitiveDiffers(field, i)).append(") {\n");
+      } else {
+        source
+          .append("    if (gulf.hasChanges(TYPE_").append(i).append(", path, ")
+          .append(this.defaulted("left", i)).append(", ").append(this.defaulted("right", i)).append(")) {\n");
+      }
+      source.append("      return true;\n").append("    }\n");
+    }
+    source.append("    return false;\n").append("  }\n").append("}\n");
+
+    return source.toString();
+  }
+
+  private List<FieldAccess> collectFields() throws GenerationException {
+    List<FieldAccess> fields = new ArrayList<>();
+
+    // same order as the reflection based lookup: declared fields first, then the fields of the super classes
+    TypeElement current = this.type;
+    while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+      for (Element enclosed : current.getEnclosedElements()) {
+        if (enclosed.getKind() == ElementKind.FIELD && !enclosed.getModifiers().contains(Modifier.STATIC)) {
+          VariableElement field = (VariableElement) enclosed;
+          fields.add(new FieldAccess(field.getSimpleName().toString(), field.asType(), current, this.accessor(current, field)));
+        }
+      }
+
+      TypeMirror superclass = current.getSuperclass();
+      current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) this.types.asElement(superclass) : null;
+    }
+
+    return fields;
+  }
+
+  private String accessor(TypeElement declaringType, VariableElement field) throws GenerationException {
+    if (this.isAccessible(field)) {
+      return field.getSimpleName().toString();
+    }
+
+    // fall back to an accessor method: name(), getName() or isName() for booleans
+    String name = field.getSimpleName().toString();
+    for (Element enclosed : declaringType.getEnclosedElements()) {
+      if (enclosed.getKind() != ElementKind.METHOD || enclosed.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+
+      ExecutableElement method = (ExecutableElement) enclosed;
+      String methodName = method.getSimpleName().toString();
+      boolean nameMatches = methodName.equals(name)
+        || methodName.equals("get" + capitalize(name))
+        || (field.asType().getKind() == TypeKind.BOOLEAN && methodName.equals("is" + capitalize(name)));
+      if (nameMatches
+        && method.getParameters().isEmpty()
+        && this.isAccessible(method)
+        && this.types.isSameType(method.getReturnType(), field.asType())) {
+        return methodName + "()";
+      }
+    }
+
+    throw new GenerationException(
+      field,
+      "Field " + name + " of " + declaringType.getQualifiedName() + " is not accessible from the generated diff finder, "
+        + "make it package-private or add an accessor method (" + name + "(), get" + capitalize(name) + "())");
+  }
+
+  private boolean isAccessible(Element member) {
+    Set<Modifier> modifiers = member.getModifiers();
+    if (modifiers.contains(Modifier.PUBLIC)) {
+      return true;
+    }
+
+    // package-private and protected members are visible for classes in the same package
+    return !modifiers.contains(Modifier.PRIVATE)
+      && this.elements.getPackageOf(member).getQualifiedName().contentEquals(this.packageName);
+  }
+
+  private String typeExpression(FieldAccess field) {
+    if (this.isReifiable(field.type)) {
+      return this.erasedName(field.type) + ".class";
+    }
+
+    // generic types cannot be expressed as a class literal, resolve them once from the field declaration
+    return "genericType(" + this.erasedName(field.declaringType.asType()) + ".class, \"" + field.name + "\")";
+  }
+
+  private boolean isReifiable(TypeMirror type) {
+    if (type.getKind() == TypeKind.ARRAY) {
+      return this.isReifiable(((ArrayType) type).getComponentType());
+    }
+
+    return type.getKind().isPrimitive()
+      || (type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty());
+  }
+
+  private String erasedName(TypeMirror type) {
+    TypeMirror erased = this.types.erasure(type);
+    if (erased.getKind() == TypeKind.ARRAY) {
+      return this.erasedName(((ArrayType) erased).getComponentType()) + "[]";
+    }
+
+    if (erased.getKind().isPrimitive()) {
+      return this.primitiveName(erased);
+    }
+
+    // use the element name, the type mirror string might contain type annotations
+    return ((TypeElement) this.types.asElement(erased)).getQualifiedName().toString();
+  }
+
+  private String primitiveName(TypeMirror type) {
+    return type.getKind().name().toLowerCase(Locale.ROOT);
+  }
+
+  private void appendFieldRead(StringBuilder source, FieldAccess field, int index) {
+    String localType = isPrimitive(field.type) ? this.primitiveName(field.type) : "Object";
+    source
+      .append("    ").append(localType).append(" left").append(index).append(" = l.").append(field.accessor).append(";\n")
+      .append("    ").append(localType).append(" right").append(index).append(" = r.").append(field.accessor).append(";\n");
+  }
+
+  private String primitiveDiffers(FieldAccess field, int index) {
+    switch (field.type.getKind()) {
+      case FLOAT:
+        return "Float.compare(left" + index + ", right" + index + ") != 0";
+      case DOUBLE:
+        return "Double.compare(left" + index + ", right" + index + ") != 0";
+      default:
+        return "left" + index + " != right" + index;
+    }
+  }
+
+  private String defaulted(String side, int index) {
+    return side + index + " == null ? gulf.getDefaultInstance(TYPE_" + index + ") : " + side + index;
+  }
+
+  static final class GenerationException extends Exception {
+
+    private static final long serialVersionUID = -3107498552136074561L;
+
+    private final transient Element element;
+
+    GenerationException(Element element, String message) {
+      super(message);
+      this.element = element;
+    }
+
+    public Element element() {
+      return this.element;
+    }
+  }
+
+  private static final class FieldAccess {
+
+    private final String name;
+    private final TypeMirror type;
+    private final TypeElement declaringType;
+    private final String accessor;
+
+    private FieldAccess(String name, TypeMirror type, TypeElement declaringType, String accessor) {
+      this.name = name;
+      this.type = type;
+      this.declaringType = declaringType;
+      this.accessor = accessor;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+@SupportedAnnotationTypes(GulfDiffableProcessor.ANNOTATION_NAME)
+public final class GulfDiffableProcessor extends AbstractProcessor {
+
+  static final String ANNOTATION_NAME = "dev.derklaro.gulf.annotation.GulfDiffable";
+  private static final String SERVICE_INDEX = "META-INF/services/dev.derklaro.gulf.finder.GeneratedDiffFinder";
+
+  private final Set<String> generatedFinders = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    // the service index can only be written once, do that after all classes were generated
+    if (roundEnv.processingOver()) {
+      if (!this.generatedFinders.isEmpty()) {
+        this.writeServiceIndex();
+      }
+      return false;
+    }
+
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS) {
+          this.processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR,
+            "@GulfDiffable can only be applied to classes",
+            element);
+          continue;
+        }
+
+        this.generateFinder((TypeElement) element);
+      }
+    }
+
+    return true;
+  }
+
+  private void generateFinder(TypeElement type) {
+    DiffFinderSourceWriter sourceWriter = new DiffFinderSourceWriter(this.processingEnv, type);
+    try {
+      String source = sourceWriter.generateSource();
+      JavaFileObject sourceFile = this.processingEnv.getFiler().createSourceFile(sourceWriter.finderBinaryName(), type);
+      try (Writer writer = sourceFile.openWriter()) {
+        writer.write(source);
+      }
+
+      this.generatedFinders.add(sourceWriter.finderBinaryName());
+    } catch (DiffFinderSourceWriter.GenerationException exception) {
+      this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, exception.getMessage(), exception.element());
+    } catch (IOException exception) {
+      this.processingEnv.getMessager().printMessage(
+        Diagnostic.Kind.ERROR,
+        "Unable to write diff finder for " + type.getQualifiedName() + ": " + exception.getMessage(),
+        type);
+    }
+  }
+
+  private void writeServiceIndex() {
+    try {
+      FileObject serviceIndex = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_INDEX);
+      try (Writer writer = serviceIndex.openWriter()) {
+        for (String generatedFinder : this.generatedFinders) {
+          writer.write(generatedFinder);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException exception) {
+      this.processingEnv.getMessager().printMessage(
+        Diagnostic.Kind.ERROR,
+        "Unable to write " + SERVICE_INDEX + ": " + exception.getMessage());
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.processor;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.finder.GeneratedDiffFinder;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class GulfDiffableProcessorTest {
+
+  @TempDir
+  Path outputDirectory;
+
+  private static JavaFileObject source(String className, String... lines) {
+    URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    String content = String.join("\n", lines);
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return content;
+      }
+    };
+  }
+
+  private DiagnosticCollector<JavaFileObject> compile(boolean expectSuccess, JavaFileObject... sources) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+      // the generated sources are compiled against the gulf classes of the test class path
+      List<String> options = Arrays.asList(
+        "-d", this.outputDirectory.toString(),
+        "-classpath", System.getProperty("java.class.path"));
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, Arrays.asList(sources));
+      task.setProcessors(Arrays.asList(new GulfDiffableProcessor()));
+
+      boolean success = task.call();
+      Assertions.assertEquals(expectSuccess, success, () -> diagnostics.getDiagnostics().toString());
+    }
+    return diagnostics;
+  }
+
+  private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+    List<String> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(diagnostic.getMessage(null));
+      }
+    }
+    return errors;
+  }
+
+  private URLClassLoader loadCompiled() throws IOException {
+    URL[] urls = {this.outputDirectory.toUri().toURL()};
+    return new URLClassLoader(urls, GulfDiffableProcessorTest.class.getClassLoader());
+  }
+
+  private static Object instantiate(Class<?> type, Object... arguments) throws ReflectiveOperationException {
+    Constructor<?> constructor = type.getDeclaredConstructors()[0];
+    constructor.setAccessible(true);
+    return constructor.newInstance(arguments);
+  }
+
+  @Test
+  void testNestedClasses() throws Exception {
+    this.compile(true, source(
+      "test.Outer",
+      "package test;",
+      "import dev.derklaro.gulf.annotation.GulfDiffable;",
+      "public final class Outer {",
+      "  @GulfDiffable",
+      "  static final class Middle {",
+      "    @GulfDiffable",
+      "    static final class Inner {",
+      "      final String name;",
+      "      Inner(String name) { this.name = name; }",
+      "    }",
+      "    final int id;",
+      "    final Inner inner;",
+      "    Middle(int id, Inner inner) { this.id = id; this.inner = inner; }",
+      "  }",
+      "}"));
+
+    // nested classes are flattened into the package of the outermost class
+    Assertions.assertTrue(new File(this.outputDirectory.toFile(), "test/Outer_Middle_GulfDiffFinder.class").exists());
+    Assertions.assertTrue(new File(this.outputDirectory.toFile(), "test/Outer_Middle_Inner_GulfDiffFinder.class").exists());
+
+    try (URLClassLoader loader = this.loadCompiled()) {
+      Class<?> middleType = loader.loadClass("test.Outer$Middle");
+      Class<?> innerType = loader.loadClass("test.Outer$Middle$Inner");
+
+      Gulf gulf = Gulf.builder().generatedDiffFinderLoader(loader).build();
+      Assertions.assertInstanceOf(GeneratedDiffFinder.class, gulf.findDiffFinder(middleType));
+      Assertions.assertInstanceOf(GeneratedDiffFinder.class, gulf.findDiffFinder(innerType));
+
+      Object left = instantiate(middleType, 1, instantiate(innerType, "Hello"));
+      Object right = instantiate(middleType, 1, instantiate(innerType, "World"));
+      Collection<Change<Object>> changes = gulf.findChanges(left, right);
+      Assertions.assertEquals(1, changes.size());
+      Assertions.assertEquals("$.inner.name", changes.iterator().next().path().toFullPath());
+    }
+  }
+
+  @Test
+  void testGetterFallback() throws Exception {
+    this.compile(true, source(
+      "test.Account",
+      "package test;",
+      "import dev.derklaro.gulf.annotation.GulfDiffable;",
+      "@GulfDiffable",
+      "public final class Account {",
+      "  private final String name;",
+      "  private final boolean active;",
+      "  private final long balance;",
+      "  Account(String name, boolean active, long balance) {",
+      "    this.name = name; this.active = active; this.balance = balance;",
+      "  }",
+      "  public String getName() { return this.name; }",
+      "  public boolean isActive() { return this.active; }",
+      "  public long balance() { return this.balance; }",
+      "}"));
+
+    try (URLClassLoader loader = this.loadCompiled()) {
+      Class<?> accountType = loader.loadClass("test.Account");
+      Gulf gulf = Gulf.builder().generatedDiffFinderLoader(loader).build();
+      Assertions.assertInstanceOf(GeneratedDiffFinder.class, gulf.findDiffFinder(accountType));
+
+      Object left = instantiate(accountType, "Hello", true, 10L);
+      Object right = instantiate(accountType, "World", false, 10L);
+      List<String> paths = new ArrayList<>();
+      for (Change<Object> change : gulf.findChanges(left, right)) {
+        paths.add(change.path().toFullPath());
+      }
+      Assertions.assertEquals(Arrays.asList("$.name", "$.active"), paths);
+      Assertions.assertFalse(gulf.hasChanges(left, instantiate(accountType, "Hello", true, 10L)));
+    }
+  }
+
+  @Test
+  void testInaccessibleField() throws Exception {
+    // the getter of the field returns a different type, it cannot be used to read the field
+    DiagnosticCollector<JavaFileObject> diagnostics = this.compile(false, source(
+      "test.Hidden",
+      "package test;",
+      "import dev.derklaro.gulf.annotation.GulfDiffable;",
+      "@GulfDiffable",
+      "public final class Hidden {",
+      "  private final int value = 0;",
+      "  public long getValue() { return this.value; }",
+      "}"));
+
+    List<String> errors = errors(diagnostics);
+    Assertions.assertEquals(1, errors.size());
+    Assertions.assertTrue(errors.get(0).startsWith("Field value of test.Hidden is not accessible"), errors.get(0));
+  }
+
+  @Test
+  void testPrivateNestedClass() throws Exception {
+    DiagnosticCollector<JavaFileObject> diagnostics = this.compile(false, source(
+      "test.Holder",
+      "package test;",
+      "import dev.derklaro.gulf.annotation.GulfDiffable;",
+      "public final class Holder {",
+      "  @GulfDiffable",
+      "  private static final class Nested {",
+      "    int value;",
+      "  }",
+      "}"));
+
+    List<String> errors = errors(diagnostics);
+    Assertions.assertEquals(1, errors.size());
+    Assertions.assertEquals("@GulfDiffable classes and their enclosing classes must not be private", errors.get(0));
+  }
+}
@@ -1 +1,3 @@
 rootProject.name = "gulf"
+
+include("gulf-processor")
@@ -0,0 +1,131 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.finder.reflection.CompiledDiffFinder;
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClassCompareBenchmark {
+
+  private Gulf reflectionGulf;
+  private Gulf compiledGulf;
+
+  private Sample sample;
+  private Sample equalSample;
+  private Sample primitiveChanged;
+  private Sample referenceChanged;
+
+  @Setup
+  public void setup() {
+    this.reflectionGulf = Gulf.builder().withLookup(Sample.class, MethodHandles.lookup()).build();
+    this.compiledGulf = Gulf.builder()
+      .withLookup(Sample.class, MethodHandles.lookup())
+      .defaultDiffFinder(new CompiledDiffFinder())
+      .build();
+
+    this.sample = new Sample("Hello", 1, 2L, "World", 3.0D, true);
+    this.equalSample = new Sample("Hello", 1, 2L, "World", 3.0D, true);
+    this.primitiveChanged = new Sample("Hello", 1, 2L, "World", 4.0D, true);
+    this.referenceChanged = new Sample("Hello", 1, 2L, "Gulf", 3.0D, true);
+  }
+
+  @Benchmark
+  public Collection<Change<Object>> reflectionEqual() {
+    return this.reflectionGulf.findChanges(this.sample, this.equalSample);
+  }
+
+  @Benchmark
+  public Collection<Change<Object>> compiledEqual() {
+    return this.compiledGulf.findChanges(this.sample, this.equalSample);
+  }
+
+  @Benchmark
+  public Collection<Change<Object>> reflectionPrimitiveChanged() {
+    return this.reflectionGulf.findChanges(this.sample, this.primitiveChanged);
+  }
+
+  @Benchmark
+  public Collection<Change<Object>> compiledPrimitiveChanged() {
+    return this.compiledGulf.findChanges(this.sample, this.primitiveChanged);
+  }
+
+  @Benchmark
+  public Collection<Change<Object>> reflectionReferenceChanged() {
+    return this.reflectionGulf.findChanges(this.sample, this.referenceChanged);
+  }
+
+  @Benchmark
+  public Collection<Change<Object>> compiledReferenceChanged() {
+    return this.compiledGulf.findChanges(this.sample, this.referenceChanged);
+  }
+
+  @Benchmark
+  public boolean reflectionHasChanges() {
+    return this.reflectionGulf.hasChanges(this.sample, this.primitiveChanged);
+  }
+
+  @Benchmark
+  public boolean compiledHasChanges() {
+    return this.compiledGulf.hasChanges(this.sample, this.primitiveChanged);
+  }
+
+  private static final class Sample {
+
+    private final String name;
+    private final int count;
+    private final long size;
+    private final String description;
+    private final double weight;
+    private final boolean active;
+
+    private Sample(String name, int count, long size, String description, double weight, boolean active) {
+      this.name = name;
+      this.count = count;
+      this.size = size;
+      this.description = description;
+      this.weight = weight;
+      this.active = active;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.finder.defaults.NumberDiffFinder;
+import dev.derklaro.gulf.type.TypeMatchers;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumberCompareBenchmark {
+
+  private Gulf gulf;
+
+  private Number intValue;
+  private Number longValue;
+  private Number doubleValue;
+
+  @Setup
+  public void setup() {
+    this.gulf = Gulf.builder().withDiffFinder(TypeMatchers.extending(Number.class), new NumberDiffFinder()).build();
+
+    this.intValue = 123_456;
+    this.longValue = 123_456L;
+    this.doubleValue = 123_456.0D;
+  }
+
+  @Benchmark
+  public boolean integerVsLong() {
+    return this.gulf.hasChanges(Number.class, this.intValue, this.longValue);
+  }
+
+  @Benchmark
+  public boolean longVsDouble() {
+    return this.gulf.hasChanges(Number.class, this.longValue, this.doubleValue);
+  }
+
+  @Benchmark
+  public boolean integerVsLongBigDecimal() {
+    // the conversion that was used for all mixed type comparisons before
+    BigDecimal left = BigDecimal.valueOf(this.intValue.longValue());
+    BigDecimal right = BigDecimal.valueOf(this.longValue.longValue());
+    return left.compareTo(right) != 0;
+  }
+
+  @Benchmark
+  public boolean longVsDoubleBigDecimal() {
+    BigDecimal left = BigDecimal.valueOf(this.longValue.longValue());
+    BigDecimal right = BigDecimal.valueOf(this.doubleValue.doubleValue());
+    return left.compareTo(right) != 0;
+  }
+}
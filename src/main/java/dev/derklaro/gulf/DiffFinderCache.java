@@ -0,0 +1,107 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.type.TypeMatcher;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+
+final class DiffFinderCache {
+
+  // upper bound of non-class types (for example parameterized types) that are cached
+  private static final int MAX_CACHED_GENERIC_TYPES = 1024;
+
+  private final DiffFinder<Object> defaultDiffFinder;
+  private final Set<Map.Entry<TypeMatcher, DiffFinder<?>>> diffFinders;
+
+  private final ClassValue<DiffFinder<Object>> classFinders;
+  private final Map<Type, DiffFinder<Object>> genericTypeFinders;
+
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  DiffFinderCache(
+    @NonNull Set<Map.Entry<TypeMatcher, DiffFinder<?>>> diffFinders,
+    @NonNull DiffFinder<Object> defaultDiffFinder
+  ) {
+    this.diffFinders = diffFinders;
+    this.defaultDiffFinder = defaultDiffFinder;
+
+    this.genericTypeFinders = new ConcurrentHashMap<>();
+    this.classFinders = new ClassValue<DiffFinder<Object>>() {
+      @Override
+      protected @NonNull DiffFinder<Object> computeValue(@NonNull Class<?> type) {
+        return DiffFinderCache.this.resolveUncached(type);
+      }
+    };
+  }
+
+  public @NonNull DiffFinder<Object> resolve(@NonNull Type type) {
+    this.lookups.increment();
+
+    // classes are the most common case and can be cached directly on the class
+    if (type instanceof Class<?>) {
+      return this.classFinders.get((Class<?>) type);
+    }
+
+    // all other types are cached in a bounded map
+    DiffFinder<Object> diffFinder = this.genericTypeFinders.get(type);
+    if (diffFinder == null) {
+      diffFinder = this.resolveUncached(type);
+      if (this.genericTypeFinders.size() < MAX_CACHED_GENERIC_TYPES) {
+        this.genericTypeFinders.putIfAbsent(type, diffFinder);
+      }
+    }
+
+    return diffFinder;
+  }
+
+  public long hits() {
+    return this.lookups.sum() - this.misses.sum();
+  }
+
+  public long misses() {
+    return this.misses.sum();
+  }
+
+  private @NonNull DiffFinder<Object> resolveUncached(@NonNull Type type) {
+    this.misses.increment();
+
+    // find the first matching diff finder in registration order, use the fallback one if none matches
+    for (Map.Entry<TypeMatcher, DiffFinder<?>> entry : this.diffFinders) {
+      if (entry.getKey().test(type)) {
+        //noinspection unchecked
+        return (DiffFinder<Object>) entry.getValue();
+      }
+    }
+
+    return this.defaultDiffFinder;
+  }
+}
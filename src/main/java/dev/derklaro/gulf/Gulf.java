@@ -27,19 +27,33 @@
 import static dev.derklaro.gulf.internal.Internals.newMapEntry;
 
 import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
 import dev.derklaro.gulf.diff.Changes;
 import dev.derklaro.gulf.finder.DiffFinder;
 import dev.derklaro.gulf.finder.DiffFinders;
+import dev.derklaro.gulf.finder.GeneratedDiffFinder;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
 import dev.derklaro.gulf.finder.defaults.ArrayDiffFinder;
+import dev.derklaro.gulf.finder.defaults.BitSetDiffFinder;
 import dev.derklaro.gulf.finder.defaults.BooleanDiffFinder;
 import dev.derklaro.gulf.finder.defaults.CharacterDiffFinder;
 import dev.derklaro.gulf.finder.defaults.CollectionDiffFinder;
 import dev.derklaro.gulf.finder.defaults.EnumDiffFinder;
+import dev.derklaro.gulf.finder.defaults.EnumSetDiffFinder;
 import dev.derklaro.gulf.finder.defaults.MapDiffFinder;
 import dev.derklaro.gulf.finder.defaults.NumberDiffFinder;
 import dev.derklaro.gulf.finder.defaults.PatternDiffFinder;
+import dev.derklaro.gulf.finder.defaults.PrimitiveArrayDiffFinder;
+import dev.derklaro.gulf.finder.defaults.SetDiffFinder;
+import dev.derklaro.gulf.finder.defaults.SortedMapDiffFinder;
+import dev.derklaro.gulf.finder.defaults.SortedSetDiffFinder;
 import dev.derklaro.gulf.finder.reflection.ReflectionDiffFinder;
+import dev.derklaro.gulf.internal.BatchExecutors;
+import dev.derklaro.gulf.internal.ForkedBranch;
 import dev.derklaro.gulf.internal.Internals;
+import dev.derklaro.gulf.limit.BoundedChanges;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.limit.DiffLimits;
 import dev.derklaro.gulf.path.DefaultPathFactory;
 import dev.derklaro.gulf.path.ObjectPath;
 import dev.derklaro.gulf.path.ObjectPathFactory;
@@ -49,12 +63,27 @@
 import dev.derklaro.gulf.type.TypeMatchers;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import lombok.NonNull;
 import org.jetbrains.annotations.ApiStatus;
@@ -66,34 +95,60 @@ public final class Gulf {
   private final Map<Class<?>, MethodHandles.Lookup> lookupPerType;
   private final Set<Map.Entry<TypeMatcher, DiffFinder<?>>> diffFinders;
   private final Set<Map.Entry<TypeMatcher, DefaultSupplier>> defaultSuppliers;
+  private final Set<Map.Entry<TypeMatcher, Function<Object, Object>>> collectionKeys;
 
   private final ObjectPathFactory pathFactory;
 
+  private final DiffFinderCache diffFinderCache;
   private final DiffFinder<Object> defaultDiffFinder;
+  private final boolean cycleDetection;
+  private final boolean iterativeTraversal;
+  private final boolean memoizedSubgraphs;
+  private final int parallelThreshold;
+  private final Executor chunkExecutor;
+  private final Map<Object, Map<Class<?>, Object>> planCaches = new ConcurrentHashMap<>();
   private final DefaultSupplier defaultDefaultSupplier;
 
   Gulf(@NonNull GulfBuilder builder) {
     // copy the maps
     this.diffFinders = new LinkedHashSet<>(builder.diffFinders);
     this.defaultSuppliers = new LinkedHashSet<>(builder.defaultSuppliers);
+    this.collectionKeys = new LinkedHashSet<>(builder.collectionKeys);
     this.lookupPerType = Collections.unmodifiableMap(new HashMap<>(builder.lookupPerType));
 
     // build the path factory
     this.pathFactory = new DefaultPathFactory(builder.rootPathIndicator, builder.pathSeparatorIndicator);
 
     // the default suppliers
-    this.defaultDiffFinder = Internals.nonNullOrGet(builder.defaultDiffFinder, () -> new ReflectionDiffFinder());
     this.defaultDefaultSupplier = Internals.nonNullOrGet(
       builder.defaultDefaultSupplier,
       () -> DefaultSuppliers.normalizingPrimitives());
 
+    // register the diff finders that were generated at compile time, they take precedence over the defaults
+    if (builder.registerGeneratedDiffFinders) {
+      ServiceLoader<GeneratedDiffFinder> generatedDiffFinders = builder.generatedDiffFinderLoader == null
+        ? ServiceLoader.load(GeneratedDiffFinder.class)
+        : ServiceLoader.load(GeneratedDiffFinder.class, builder.generatedDiffFinderLoader);
+      for (GeneratedDiffFinder diffFinder : generatedDiffFinders) {
+        this.diffFinders.add(newMapEntry(TypeMatchers.exact(diffFinder.targetType()), diffFinder));
+      }
+    }
+
     // register the default equality checkers if requested
     if (builder.registerDefaults) {
+      this.diffFinders.add(newMapEntry(TypeMatchers.extending(SortedMap.class), new SortedMapDiffFinder()));
       this.diffFinders.add(newMapEntry(TypeMatchers.extending(Map.class), new MapDiffFinder()));
       this.diffFinders.add(newMapEntry(TypeMatchers.exact(Pattern.class), new PatternDiffFinder()));
       this.diffFinders.add(newMapEntry(TypeMatchers.isClassAnd(Class::isEnum), new EnumDiffFinder()));
-      this.diffFinders.add(newMapEntry(TypeMatchers.isClassAnd(Class::isArray), new ArrayDiffFinder()));
-      this.diffFinders.add(newMapEntry(TypeMatchers.extending(Collection.class), new CollectionDiffFinder()));
+      for (PrimitiveArrayDiffFinder<?> diffFinder : PrimitiveArrayDiffFinder.defaults()) {
+        this.diffFinders.add(newMapEntry(TypeMatchers.exact(diffFinder.arrayType()), diffFinder));
+      }
+      this.diffFinders.add(newMapEntry(TypeMatchers.isClassAnd(Class::isArray), new ArrayDiffFinder(builder.indexRangeChanges)));
+      this.diffFinders.add(newMapEntry(TypeMatchers.extending(EnumSet.class), new EnumSetDiffFinder()));
+      this.diffFinders.add(newMapEntry(TypeMatchers.exact(BitSet.class), new BitSetDiffFinder()));
+      this.diffFinders.add(newMapEntry(TypeMatchers.extending(SortedSet.class), new SortedSetDiffFinder()));
+      this.diffFinders.add(newMapEntry(TypeMatchers.extending(Set.class), new SetDiffFinder()));
+      this.diffFinders.add(newMapEntry(TypeMatchers.extending(Collection.class), new CollectionDiffFinder(builder.indexRangeChanges)));
       this.diffFinders.add(newMapEntry(TypeMatchers.inPackage("java"), DiffFinders.equalityBased()));
       this.diffFinders.add(newMapEntry(TypeMatchers.anyOf(Boolean.class, boolean.class), new BooleanDiffFinder()));
       this.diffFinders.add(newMapEntry(TypeMatchers.anyOf(Character.class, char.class), new CharacterDiffFinder()));
@@ -102,6 +157,19 @@ public final class Gulf {
           .or(TypeMatchers.anyOf(byte.class, short.class, int.class, long.class, float.class, double.class)),
         new NumberDiffFinder()));
     }
+
+    // build the diff finder cache based on the final set of registered diff finders
+    this.defaultDiffFinder = Internals.nonNullOrGet(
+      builder.defaultDiffFinder,
+      () -> new ReflectionDiffFinder());
+    this.diffFinderCache = new DiffFinderCache(this.diffFinders, this.defaultDiffFinder);
+
+    // the objects visited during a call, the work stack and the pool of a parallel call are tracked per call
+    this.cycleDetection = builder.cycleDetection;
+    this.iterativeTraversal = builder.iterativeTraversal;
+    this.memoizedSubgraphs = builder.memoizedSubgraphs;
+    this.parallelThreshold = builder.parallelThreshold;
+    this.chunkExecutor = builder.chunkExecutor;
   }
 
   public static @NonNull GulfBuilder builder() {
@@ -138,30 +206,398 @@ public final class Gulf {
     @NonNull ObjectPath path,
     @Nullable Object left,
     @Nullable Object right
+  ) {
+    // collect all changes that are pushed into the sink
+    Collection<Change<Object>> changes = new ArrayList<>();
+    this.findChanges(type, path, left, right, changes::add);
+    return changes.isEmpty() ? Changes.none() : changes;
+  }
+
+  public void findChanges(@Nullable Object left, @Nullable Object right, @NonNull ChangeSink<Object> sink) {
+    this.findChanges(null, left, right, sink);
+  }
+
+  public void findChanges(
+    @Nullable Type type,
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    this.findChanges(type, this.pathFactory.beginPath(), left, right, sink);
+  }
+
+  public void findChanges(
+    @Nullable Type type,
+    @NonNull ObjectPath path,
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull ChangeSink<Object> sink
   ) {
     // Check if both objects are null OR the type is specifically supplied
     // While it's unusual that when both objects are null there is a diff, there might be some checker which finds the
     // diff anyway, but we cannot detect the checker if both objects are null and no type is supplied, as the resolution
     // of the checker based on the type is impossible
     if (type == null && left == null && right == null) {
-      return Changes.none();
+      return;
     }
 
     // get the supplied element type or get if off the supplied objects' type
     Type objectType = Internals.nonNullOrGet(type, () -> Internals.getObjectType(left, right));
 
     // find the matching equality checker for the given type, use the fallback one if none matches
-    DiffFinder<Object> diffFinder = this.defaultDiffFinder;
-    for (Map.Entry<TypeMatcher, DiffFinder<?>> entry : this.diffFinders) {
-      if (entry.getKey().test(objectType)) {
-        //noinspection unchecked
-        diffFinder = (DiffFinder<Object>) entry.getValue();
-        break;
+    DiffFinder<Object> diffFinder = this.diffFinderCache.resolve(objectType);
+
+    // push the changes between the given objects into the sink
+    this.findChangesUsing(diffFinder, objectType, path, left, right, sink);
+  }
+
+  public @NonNull Collection<Change<Object>> findChangesParallel(
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull ForkJoinPool pool
+  ) {
+    return this.findChangesParallel(null, left, right, pool);
+  }
+
+  public @NonNull Collection<Change<Object>> findChangesParallel(
+    @Nullable Type type,
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull ForkJoinPool pool
+  ) {
+    // the comparison runs in the pool, so that the forked branches can be joined by work stealing
+    return pool.invoke(new RecursiveTask<Collection<Change<Object>>>() {
+      @Override
+      protected @NonNull Collection<Change<Object>> compute() {
+        TraversalState state = Gulf.this.newTraversalState(pool, null);
+        try {
+          return Gulf.this.findChanges(type, Gulf.this.pathFactory.beginPath().withTraversalState(state), left, right);
+        } finally {
+          state.close();
+        }
+      }
+    });
+  }
+
+  public @NonNull BoundedChanges findChangesBounded(
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull DiffLimits limits
+  ) {
+    return this.findChangesBounded(null, left, right, limits);
+  }
+
+  public @NonNull BoundedChanges findChangesBounded(
+    @Nullable Type type,
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull DiffLimits limits
+  ) {
+    // the budget is held by the state of the call, so every comparison and change can reach it through its path
+    DiffBudget budget = new DiffBudget(limits);
+    TraversalState state = this.newTraversalState(null, budget);
+    try {
+      ObjectPath path = this.pathFactory.beginPath().withTraversalState(state);
+      return budget.complete(this.findChanges(type, path, left, right));
+    } finally {
+      state.close();
+    }
+  }
+
+  public @NonNull List<Collection<Change<Object>>> findChangesBatch(@NonNull List<ObjectPair> pairs) {
+    return this.findChangesBatch(pairs, BatchExecutors.defaultExecutor());
+  }
+
+  public @NonNull List<Collection<Change<Object>>> findChangesBatch(
+    @NonNull List<ObjectPair> pairs,
+    @NonNull Executor executor
+  ) {
+    // all pairs are compared by this instance, so the resolved diff finders and class plans are shared
+    List<CompletableFuture<Collection<Change<Object>>>> futures = new ArrayList<>(pairs.size());
+    for (ObjectPair pair : pairs) {
+      futures.add(CompletableFuture.supplyAsync(() -> this.findChanges(pair.type(), pair.left(), pair.right()), executor));
+    }
+
+    // collect the results in the order of the given pairs
+    List<Collection<Change<Object>>> results = new ArrayList<>(pairs.size());
+    try {
+      for (CompletableFuture<Collection<Change<Object>>> future : futures) {
+        results.add(future.join());
+      }
+    } catch (CompletionException exception) {
+      throw Internals.propagate(exception);
+    }
+    return results;
+  }
+
+  public void findChangesBatch(
+    @NonNull List<ObjectPair> pairs,
+    @NonNull BiConsumer<ObjectPair, Collection<Change<Object>>> consumer
+  ) {
+    this.findChangesBatch(pairs, BatchExecutors.defaultExecutor(), consumer);
+  }
+
+  public void findChangesBatch(
+    @NonNull List<ObjectPair> pairs,
+    @NonNull Executor executor,
+    @NonNull BiConsumer<ObjectPair, Collection<Change<Object>>> consumer
+  ) {
+    // the consumer is called from the executing threads as soon as the changes of a pair are known
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[pairs.size()];
+    for (int idx = 0; idx < futures.length; idx++) {
+      ObjectPair pair = pairs.get(idx);
+      futures[idx] = CompletableFuture.runAsync(
+        () -> consumer.accept(pair, this.findChanges(pair.type(), pair.left(), pair.right())),
+        executor);
+    }
+
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException exception) {
+      throw Internals.propagate(exception);
+    }
+  }
+
+  @ApiStatus.Internal
+  public boolean forking(@NonNull ObjectPath path) {
+    // bounded calls are never forked, as their limits must be applied in order
+    TraversalState state = path.traversalState();
+    return path.budget() == null && state != null && state.pool() != null && state.runningOn(this);
+  }
+
+  @ApiStatus.Internal
+  public boolean chunking(@NonNull ObjectPath path, int size) {
+    if (size < this.parallelThreshold || path.budget() != null) {
+      return false;
+    }
+    return this.chunkExecutor != null || this.forking(path);
+  }
+
+  @ApiStatus.Internal
+  public int parallelThreshold() {
+    return this.parallelThreshold;
+  }
+
+  @ApiStatus.Internal
+  public @NonNull <R> List<R> forkBranches(
+    @NonNull ObjectPath path,
+    int branches,
+    @NonNull ForkedBranch<R> branch
+  ) {
+    if (this.forking(path)) {
+      TraversalState state = path.traversalState();
+      return TraversalState.forkBranches(state, state.pool(), path, branches, branch);
+    }
+
+    // not running in a parallel call, just run the branches in order
+    return runBranches(path, branches, branch);
+  }
+
+  @ApiStatus.Internal
+  public @NonNull <R> List<R> forkChunks(
+    @NonNull ObjectPath path,
+    int chunks,
+    @NonNull ForkedBranch<R> chunk
+  ) {
+    // chunks are forked into the pool of a parallel call, or onto the chunk executor if configured
+    TraversalState state = path.traversalState();
+    if (state == null || !state.runningOn(this)) {
+      return runBranches(path, chunks, chunk);
+    } else if (state.pool() != null) {
+      return TraversalState.forkBranches(state, state.pool(), path, chunks, chunk);
+    } else if (this.chunkExecutor != null) {
+      return TraversalState.forkBranches(state, this.chunkExecutor, path, chunks, chunk);
+    } else {
+      return runBranches(path, chunks, chunk);
+    }
+  }
+
+  private static @NonNull <R> List<R> runBranches(
+    @NonNull ObjectPath path,
+    int branches,
+    @NonNull ForkedBranch<R> branch
+  ) {
+    List<R> results = new ArrayList<>(branches);
+    for (int idx = 0; idx < branches; idx++) {
+      results.add(branch.run(path, idx));
+    }
+    return results;
+  }
+
+  private @NonNull TraversalState newTraversalState(@Nullable ForkJoinPool pool, @Nullable DiffBudget budget) {
+    return new TraversalState(this, this.memoizedSubgraphs, this.iterativeTraversal, pool, null, budget);
+  }
+
+  @ApiStatus.Internal
+  public void findChangesUsing(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // the outermost comparison of a call, all nested comparisons reach the state of the call through their paths
+    TraversalState state = path.traversalState();
+    if (state == null || !state.runningOn(this)) {
+      state = this.newTraversalState(null, null);
+      try {
+        this.findChangesUsing(diffFinder, type, path.withTraversalState(state), left, right, sink);
+      } finally {
+        state.close();
+      }
+      return;
+    }
+
+    // the limits of a bounded call are checked before each comparison, the changes are counted once pushed into the sink
+    path = Internals.pathFor(diffFinder, path);
+    DiffBudget budget = path.budget();
+    if (budget != null) {
+      if (!budget.enter(path)) {
+        return;
+      }
+      sink = budget.countChanges(sink);
+    }
+
+    // the state only handles comparisons that are tracked as visits or run iteratively
+    if (left == null || right == null || !this.usesTraversalState(diffFinder)) {
+      diffFinder.findChanges(this, path, type, left, right, sink);
+    } else {
+      state.findChanges(diffFinder, type, path, left, right, sink);
+    }
+  }
+
+  public boolean hasChanges(@Nullable Object left, @Nullable Object right) {
+    return this.hasChanges(null, left, right);
+  }
+
+  public boolean hasChanges(@Nullable Type type, @Nullable Object left, @Nullable Object right) {
+    return this.hasChanges(type, this.pathFactory.beginPath(), left, right);
+  }
+
+  public boolean hasChanges(
+    @Nullable Type type,
+    @NonNull ObjectPath path,
+    @Nullable Object left,
+    @Nullable Object right
+  ) {
+    // see findChanges: the diff finder cannot be resolved if both objects are null and no type is given
+    if (type == null && left == null && right == null) {
+      return false;
+    }
+
+    // resolve the diff finder based on the given type or the objects' type
+    Type objectType = Internals.nonNullOrGet(type, () -> Internals.getObjectType(left, right));
+    DiffFinder<Object> diffFinder = this.diffFinderCache.resolve(objectType);
+
+    // check if there is any change between the given objects
+    return this.hasChangesUsing(diffFinder, objectType, path, left, right);
+  }
+
+  @ApiStatus.Internal
+  public boolean hasChangesUsing(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @Nullable Object left,
+    @Nullable Object right
+  ) {
+    // see findChangesUsing
+    TraversalState state = path.traversalState();
+    if (state == null || !state.runningOn(this)) {
+      state = this.newTraversalState(null, null);
+      try {
+        return this.hasChangesUsing(diffFinder, type, path.withTraversalState(state), left, right);
+      } finally {
+        state.close();
       }
     }
 
-    // check the equality between the given objects
-    return diffFinder.findChanges(this, path, objectType, left, right);
+    path = Internals.pathFor(diffFinder, path);
+    if (left == null || right == null || !this.usesTraversalState(diffFinder)) {
+      return diffFinder.hasChanges(this, path, type, left, right);
+    }
+    return state.hasChanges(diffFinder, type, path, left, right);
+  }
+
+  @ApiStatus.Internal
+  public boolean pushChanges(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @Nullable Object left,
+    @Nullable Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // push the comparison onto the work stack of the running traversal, fall back to a direct comparison if not possible
+    TraversalState state = path.traversalState();
+    if (state == null || !state.runningOn(this) || left == null || right == null || !this.usesTraversalState(diffFinder)) {
+      this.findChangesUsing(diffFinder, type, path, left, right, sink);
+      return false;
+    }
+
+    // see findChangesUsing
+    path = Internals.pathFor(diffFinder, path);
+    DiffBudget budget = path.budget();
+    if (budget != null) {
+      if (!budget.enter(path)) {
+        return false;
+      }
+      sink = budget.countChanges(sink);
+    }
+
+    return state.pushChanges(diffFinder, type, path, left, right, sink);
+  }
+
+  @ApiStatus.Internal
+  public @Nullable Boolean pushHasChanges(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @Nullable Object left,
+    @Nullable Object right
+  ) {
+    // see pushChanges, returns null if the comparison was pushed
+    TraversalState state = path.traversalState();
+    if (state == null || !state.runningOn(this) || left == null || right == null || !this.usesTraversalState(diffFinder)) {
+      return this.hasChangesUsing(diffFinder, type, path, left, right);
+    }
+
+    path = Internals.pathFor(diffFinder, path);
+    return state.pushHasChanges(diffFinder, type, path, left, right);
+  }
+
+  private boolean usesTraversalState(@NonNull DiffFinder<Object> diffFinder) {
+    return (this.iterativeTraversal && diffFinder instanceof IterativeDiffFinder) || this.tracksVisits(diffFinder);
+  }
+
+  boolean tracksVisits(@NonNull DiffFinder<Object> diffFinder) {
+    // only objects that are diffed field by field can form cycles or shared subgraphs. memoizing the changes of
+    // subgraphs requires tracking the visited objects as well
+    boolean trackVisits = this.cycleDetection || this.memoizedSubgraphs;
+    return trackVisits && (diffFinder == this.defaultDiffFinder || diffFinder instanceof GeneratedDiffFinder);
+  }
+
+  public @Nullable Function<Object, Object> findCollectionKey(@NonNull Type elementType) {
+    // find the first matching key extractor in registration order
+    for (Map.Entry<TypeMatcher, Function<Object, Object>> entry : this.collectionKeys) {
+      if (entry.getKey().test(elementType)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  public @NonNull DiffFinder<Object> findDiffFinder(@NonNull Type type) {
+    return this.diffFinderCache.resolve(type);
+  }
+
+  public long diffFinderCacheHits() {
+    return this.diffFinderCache.hits();
+  }
+
+  public long diffFinderCacheMisses() {
+    return this.diffFinderCache.misses();
   }
 
   @Unmodifiable
@@ -169,4 +605,16 @@ public final class Gulf {
   public @NonNull Map<Class<?>, MethodHandles.Lookup> lookupPerType() {
     return this.lookupPerType;
   }
+
+  // the per class plans a diff finder compiled for this instance. the plans contain information resolved from this
+  // instance, so a diff finder that is shared between multiple instances needs one cache per instance
+  @ApiStatus.Internal
+  @SuppressWarnings("unchecked")
+  public @NonNull <P> Map<Class<?>, P> planCache(@NonNull Object owner) {
+    Map<Class<?>, Object> planCache = this.planCaches.get(owner);
+    if (planCache == null) {
+      planCache = this.planCaches.computeIfAbsent(owner, key -> new ConcurrentHashMap<>());
+    }
+    return (Map<Class<?>, P>) planCache;
+  }
 }
@@ -33,6 +33,9 @@
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import lombok.NonNull;
 
 public final class GulfBuilder {
@@ -41,8 +44,17 @@ public final class GulfBuilder {
 
   final Set<Map.Entry<TypeMatcher, DiffFinder<?>>> diffFinders = new LinkedHashSet<>();
   final Set<Map.Entry<TypeMatcher, DefaultSupplier>> defaultSuppliers = new LinkedHashSet<>();
+  final Set<Map.Entry<TypeMatcher, Function<Object, Object>>> collectionKeys = new LinkedHashSet<>();
 
   boolean registerDefaults = true;
+  boolean registerGeneratedDiffFinders = true;
+  boolean indexRangeChanges = false;
+  boolean cycleDetection = true;
+  boolean iterativeTraversal = false;
+  boolean memoizedSubgraphs = true;
+  int parallelThreshold = 1024;
+  Executor chunkExecutor;
+  ClassLoader generatedDiffFinderLoader;
 
   String rootPathIndicator = "$";
   String pathSeparatorIndicator = ".";
@@ -58,6 +70,58 @@ public final class GulfBuilder {
     return this;
   }
 
+  public @NonNull GulfBuilder withoutCycleDetection() {
+    this.cycleDetection = false;
+    return this;
+  }
+
+  public @NonNull GulfBuilder withIterativeTraversal() {
+    this.iterativeTraversal = true;
+    return this;
+  }
+
+  // by default, objects that are reachable through multiple paths are only diffed once, later paths reference the
+  // changes of the first diff using a MemoizedChange. without it each path is diffed again, which can take
+  // exponential time for graphs with many shared nodes. visited objects are tracked as long as either this or the
+  // cycle detection is enabled
+  public @NonNull GulfBuilder withoutMemoizedSubgraphs() {
+    this.memoizedSubgraphs = false;
+    return this;
+  }
+
+  public @NonNull GulfBuilder parallelThreshold(int parallelThreshold) {
+    if (parallelThreshold < 1) {
+      throw new IllegalArgumentException("Parallel threshold must be positive, got " + parallelThreshold);
+    }
+
+    this.parallelThreshold = parallelThreshold;
+    return this;
+  }
+
+  public @NonNull GulfBuilder withParallelChunks() {
+    return this.withParallelChunks(ForkJoinPool.commonPool());
+  }
+
+  public @NonNull GulfBuilder withParallelChunks(@NonNull Executor chunkExecutor) {
+    this.chunkExecutor = chunkExecutor;
+    return this;
+  }
+
+  public @NonNull GulfBuilder withoutGeneratedDiffFinders() {
+    this.registerGeneratedDiffFinders = false;
+    return this;
+  }
+
+  public @NonNull GulfBuilder withIndexRangeChanges() {
+    this.indexRangeChanges = true;
+    return this;
+  }
+
+  public @NonNull GulfBuilder generatedDiffFinderLoader(@NonNull ClassLoader generatedDiffFinderLoader) {
+    this.generatedDiffFinderLoader = generatedDiffFinderLoader;
+    return this;
+  }
+
   public @NonNull GulfBuilder rootPathIndicator(@NonNull String rootPathIndicator) {
     this.rootPathIndicator = rootPathIndicator;
     return this;
@@ -83,6 +147,14 @@ public final class GulfBuilder {
     return this;
   }
 
+  public @NonNull GulfBuilder withCollectionKey(
+    @NonNull TypeMatcher elementMatcher,
+    @NonNull Function<Object, Object> keyExtractor
+  ) {
+    this.collectionKeys.add(Internals.newMapEntry(elementMatcher, keyExtractor));
+    return this;
+  }
+
   public @NonNull GulfBuilder defaultDiffFinder(@NonNull DiffFinder<Object> defaultDiffFinder) {
     this.defaultDiffFinder = defaultDiffFinder;
     return this;
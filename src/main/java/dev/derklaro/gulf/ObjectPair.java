@@ -0,0 +1,62 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import java.lang.reflect.Type;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class ObjectPair {
+
+  private final Type type;
+  private final Object left;
+  private final Object right;
+
+  private ObjectPair(@Nullable Type type, @Nullable Object left, @Nullable Object right) {
+    this.type = type;
+    this.left = left;
+    this.right = right;
+  }
+
+  public static @NonNull ObjectPair of(@Nullable Object left, @Nullable Object right) {
+    return new ObjectPair(null, left, right);
+  }
+
+  public static @NonNull ObjectPair of(@Nullable Type type, @Nullable Object left, @Nullable Object right) {
+    return new ObjectPair(type, left, right);
+  }
+
+  public @Nullable Type type() {
+    return this.type;
+  }
+
+  public @Nullable Object left() {
+    return this.left;
+  }
+
+  public @Nullable Object right() {
+    return this.right;
+  }
+}
@@ -0,0 +1,639 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.MemoizedChange;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.internal.ForkedBranch;
+import dev.derklaro.gulf.internal.Internals;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+// the state of a single call, which is bound to the paths of the call once it begins (see Gulf#findChangesUsing)
+@ApiStatus.Internal
+public final class TraversalState {
+
+  // the result of a visit as recorded in the visit table, 0 marks an empty slot of the table
+  private static final byte IN_PROGRESS = 1;
+  private static final byte UNCHANGED = 2;
+  private static final byte CHANGED = 3;
+
+  private final Gulf gulf;
+  private final boolean memoize;
+  private final boolean iterative;
+
+  // the pool of a parallel call and the state of the branch that forked this one, both null for sequential calls
+  private final ForkJoinPool pool;
+  private final TraversalState parent;
+
+  // the limit state of a bounded call, null for unbounded calls. bounded calls are never forked
+  private DiffBudget budget;
+
+  // the thread that is running the comparisons of this state, null once the call completed
+  private Thread thread;
+
+  // all object pairs that were visited during the current call. a branch only records its own visits and reads the
+  // ones of its parents, they are merged into the parent once joined
+  private VisitTable visits = new VisitTable();
+
+  // the work stack of the innermost traversal loop that is currently running, null if no loop is running
+  private Deque<StackEntry> workStack;
+
+  TraversalState(
+    @NonNull Gulf gulf,
+    boolean memoize,
+    boolean iterative,
+    @Nullable ForkJoinPool pool,
+    @Nullable TraversalState parent,
+    @Nullable DiffBudget budget
+  ) {
+    this.gulf = gulf;
+    this.memoize = memoize;
+    this.iterative = iterative;
+    this.pool = pool;
+    this.parent = parent;
+    this.budget = budget;
+    this.thread = Thread.currentThread();
+  }
+
+  boolean runningOn(@NonNull Gulf gulf) {
+    // paths can outlive the call they were created in, for example when they are passed to a later call
+    return this.gulf == gulf && this.thread == Thread.currentThread();
+  }
+
+  void close() {
+    // the paths of the reported changes reference this state, so release the visited objects. the budget is released
+    // as well, so that a path passed to a later call doesn't apply the limits of this call
+    this.thread = null;
+    this.budget = null;
+    this.visits = null;
+    this.workStack = null;
+  }
+
+  @Nullable ForkJoinPool pool() {
+    return this.pool;
+  }
+
+  public @Nullable DiffBudget budget() {
+    return this.budget;
+  }
+
+  void findChanges(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    if (!this.gulf.tracksVisits(diffFinder)) {
+      if (this.iterative && diffFinder instanceof IterativeDiffFinder) {
+        // drive the comparison of the objects and all nested objects in a loop
+        DiffFrame frame = ((IterativeDiffFinder) diffFinder).findChangesFrame(this.gulf, path, type, left, right, sink);
+        this.run(new StackEntry(frame, null, null, null, 0));
+      } else {
+        diffFinder.findChanges(this.gulf, path, type, left, right, sink);
+      }
+      return;
+    }
+
+    if (this.skipFindVisit(path, left, right, sink)) {
+      return;
+    }
+
+    TrackingSink visitSink = this.trackingSink(sink);
+    int mark = visitSink.count;
+    if (this.iterative && diffFinder instanceof IterativeDiffFinder) {
+      DiffFrame frame = ((IterativeDiffFinder) diffFinder).findChangesFrame(this.gulf, path, type, left, right, visitSink);
+      this.run(new StackEntry(frame, left, right, visitSink, mark));
+    } else {
+      diffFinder.findChanges(this.gulf, path, type, left, right, visitSink);
+      this.completeFindVisit(left, right, visitSink, mark);
+    }
+  }
+
+  boolean pushChanges(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // the comparison can only be pushed if a loop is running that picks it up
+    if (this.workStack == null || !this.iterative || !(diffFinder instanceof IterativeDiffFinder)) {
+      this.findChanges(diffFinder, type, path, left, right, sink);
+      return false;
+    }
+
+    IterativeDiffFinder iterativeDiffFinder = (IterativeDiffFinder) diffFinder;
+    if (!this.gulf.tracksVisits(diffFinder)) {
+      DiffFrame frame = iterativeDiffFinder.findChangesFrame(this.gulf, path, type, left, right, sink);
+      this.workStack.push(new StackEntry(frame, null, null, null, 0));
+      return true;
+    }
+
+    if (this.skipFindVisit(path, left, right, sink)) {
+      return false;
+    }
+
+    TrackingSink visitSink = this.trackingSink(sink);
+    DiffFrame frame = iterativeDiffFinder.findChangesFrame(this.gulf, path, type, left, right, visitSink);
+    this.workStack.push(new StackEntry(frame, left, right, visitSink, visitSink.count));
+    return true;
+  }
+
+  boolean hasChanges(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    boolean trackVisits = this.gulf.tracksVisits(diffFinder);
+    if (trackVisits) {
+      byte visit = this.beginHasVisit(left, right);
+      if (visit != 0) {
+        // a cycle is assumed to have no changes, the visit in progress decides if there are changes
+        return visit == CHANGED;
+      }
+    }
+
+    boolean changed;
+    if (this.iterative && diffFinder instanceof IterativeDiffFinder) {
+      DiffFrame frame = ((IterativeDiffFinder) diffFinder).hasChangesFrame(this.gulf, path, type, left, right);
+      this.run(new StackEntry(frame, trackVisits ? left : null, right, null, 0));
+      changed = frame.changed();
+    } else {
+      changed = diffFinder.hasChanges(this.gulf, path, type, left, right);
+      if (trackVisits) {
+        this.visits.put(left, right, changed ? CHANGED : UNCHANGED, null);
+      }
+    }
+    return changed;
+  }
+
+  @Nullable Boolean pushHasChanges(
+    @NonNull DiffFinder<Object> diffFinder,
+    @NonNull Type type,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    // see pushChanges
+    if (this.workStack == null || !this.iterative || !(diffFinder instanceof IterativeDiffFinder)) {
+      return this.hasChanges(diffFinder, type, path, left, right);
+    }
+
+    boolean trackVisits = this.gulf.tracksVisits(diffFinder);
+    if (trackVisits) {
+      byte visit = this.beginHasVisit(left, right);
+      if (visit != 0) {
+        return visit == CHANGED;
+      }
+    }
+
+    DiffFrame frame = ((IterativeDiffFinder) diffFinder).hasChangesFrame(this.gulf, path, type, left, right);
+    this.workStack.push(new StackEntry(frame, trackVisits ? left : null, right, null, 0));
+    return null;
+  }
+
+  static @NonNull <R> List<R> forkBranches(
+    @NonNull TraversalState parent,
+    @NonNull Executor executor,
+    @NonNull ObjectPath path,
+    int branches,
+    @NonNull ForkedBranch<R> branch
+  ) {
+    // each branch runs with its own state that sees all visits of the parent state
+    List<BranchTask<R>> tasks = new ArrayList<>(branches);
+    for (int idx = 0; idx < branches; idx++) {
+      tasks.add(new BranchTask<>(parent.newBranch(), path, branch, idx));
+    }
+
+    if (executor instanceof ForkJoinPool && ForkJoinTask.getPool() == executor) {
+      // running in the pool already, join the branches by work stealing
+      List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(branches);
+      for (BranchTask<R> task : tasks) {
+        forkJoinTasks.add(ForkJoinTask.adapt(task));
+      }
+      ForkJoinTask.invokeAll(forkJoinTasks);
+    } else {
+      // the forking thread runs all branches that weren't picked up by the executor yet, so it never waits for a
+      // branch that didn't start, which could dead lock bounded executors
+      for (int idx = 1; idx < branches; idx++) {
+        try {
+          executor.execute(tasks.get(idx));
+        } catch (RejectedExecutionException exception) {
+          break;
+        }
+      }
+      for (BranchTask<R> task : tasks) {
+        task.run();
+      }
+
+      // the visits of a branch are only read once the branch completed, the executor might still be running it
+      for (BranchTask<R> task : tasks) {
+        task.await();
+      }
+    }
+
+    // merge the results in order. a branch that visited a pair which an earlier branch visited as well would have
+    // seen that visit when running sequentially, in that case the branch is compared again after the earlier ones
+    List<R> results = new ArrayList<>(branches);
+    VisitTable mergedVisits = new VisitTable();
+    for (BranchTask<R> task : tasks) {
+      BranchTask<R> completed = task;
+      if (mergedVisits.intersects(task.state.visits)) {
+        completed = new BranchTask<>(parent.newBranch(), path, branch, task.index);
+        completed.run();
+      }
+
+      results.add(completed.join());
+      parent.visits.putAll(completed.state.visits);
+      mergedVisits.putAll(completed.state.visits);
+    }
+    return results;
+  }
+
+  private @NonNull TraversalState newBranch() {
+    return new TraversalState(this.gulf, this.memoize, this.iterative, this.pool, this, null);
+  }
+
+  private @NonNull TrackingSink trackingSink(@NonNull ChangeSink<Object> sink) {
+    // nested visits share the sink of the parent visit instead of wrapping the sink once per level
+    if (sink instanceof TrackingSink && ((TrackingSink) sink).state == this) {
+      return (TrackingSink) sink;
+    }
+    return new TrackingSink(this, sink, this.memoize);
+  }
+
+  private void run(@NonNull StackEntry root) {
+    // loops can be nested, for example if a collection diff finder compares its elements
+    Deque<StackEntry> previousWorkStack = this.workStack;
+    Deque<StackEntry> workStack = new ArrayDeque<>();
+    this.workStack = workStack;
+    try {
+      workStack.push(root);
+      while (!workStack.isEmpty()) {
+        // resume the top frame, if it pushed a nested comparison that one is on top now
+        StackEntry entry = workStack.peek();
+        if (!entry.frame.resume()) {
+          continue;
+        }
+
+        // the frame is done, complete its visit and notify the parent if changes were found
+        workStack.pop();
+        boolean changed = entry.frame.changed();
+        if (entry.left != null) {
+          if (entry.sink != null) {
+            this.completeFindVisit(entry.left, entry.right, entry.sink, entry.mark);
+          } else {
+            this.visits.put(entry.left, entry.right, changed ? CHANGED : UNCHANGED, null);
+          }
+        }
+
+        StackEntry parent = workStack.peek();
+        if (changed && parent != null) {
+          parent.frame.markChanged();
+        }
+      }
+    } finally {
+      this.workStack = previousWorkStack;
+    }
+  }
+
+  // returns true if the objects must not be compared again, marks the visit as in progress otherwise
+  private boolean skipFindVisit(
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    for (TraversalState state = this; state != null; state = state.parent) {
+      int slot = state.visits.slot(left, right);
+      if (slot < 0) {
+        continue;
+      }
+
+      // a cycle, the changes are reported by the visit that is still in progress. if there were no changes the
+      // result would be the same when diffing the pair again
+      byte visit = state.visits.state(slot);
+      if (visit != CHANGED) {
+        return true;
+      }
+
+      // reference the changes of the first diff instead of diffing the subgraph again
+      Memo memo = state.visits.memo(slot);
+      if (memo != null) {
+        sink.accept(new MemoizedChange<>(path, left, right, memo.changes()));
+        return true;
+      }
+
+      // the pair was only checked for changes before, or the changes were not memoized. visits of the parents are
+      // shared between branches, the visit is recorded in the table of this branch instead
+      break;
+    }
+
+    this.visits.put(left, right, IN_PROGRESS, null);
+    return false;
+  }
+
+  // returns 0 if the objects weren't visited yet and marks the visit as in progress, the visit result otherwise
+  private byte beginHasVisit(@NonNull Object left, @NonNull Object right) {
+    for (TraversalState state = this; state != null; state = state.parent) {
+      int slot = state.visits.slot(left, right);
+      if (slot >= 0) {
+        return state.visits.state(slot);
+      }
+    }
+
+    this.visits.put(left, right, IN_PROGRESS, null);
+    return 0;
+  }
+
+  private void completeFindVisit(
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull TrackingSink sink,
+    int mark
+  ) {
+    if (sink.count == mark) {
+      this.visits.put(left, right, UNCHANGED, null);
+    } else {
+      // the changes of the visit are the range of the log that was appended while the visit was in progress
+      Memo memo = sink.changeLog == null ? null : new Memo(sink.changeLog, mark, sink.count);
+      this.visits.put(left, right, CHANGED, memo);
+    }
+  }
+
+  // an open addressing table keyed by the identity of both objects of a pair, so that looking up a visit allocates
+  // nothing. the arrays are allocated once the first visit is recorded
+  private static final class VisitTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // the objects of a slot are stored next to each other in the keys array
+    private Object[] keys;
+    private byte[] states;
+    private Memo[] memos;
+    private int size;
+
+    public int slot(@NonNull Object left, @NonNull Object right) {
+      if (this.states == null) {
+        return -1;
+      }
+
+      // linear probing, the table always has empty slots left
+      int mask = this.states.length - 1;
+      for (int slot = hash(left, right) & mask; ; slot = (slot + 1) & mask) {
+        if (this.states[slot] == 0) {
+          return -1;
+        }
+        if (this.keys[slot << 1] == left && this.keys[(slot << 1) + 1] == right) {
+          return slot;
+        }
+      }
+    }
+
+    public byte state(int slot) {
+      return this.states[slot];
+    }
+
+    public @Nullable Memo memo(int slot) {
+      return this.memos == null ? null : this.memos[slot];
+    }
+
+    public void put(@NonNull Object left, @NonNull Object right, byte state, @Nullable Memo memo) {
+      if (this.states == null) {
+        this.keys = new Object[INITIAL_CAPACITY << 1];
+        this.states = new byte[INITIAL_CAPACITY];
+      } else if ((this.size + 1) << 1 > this.states.length) {
+        this.resize();
+      }
+
+      int mask = this.states.length - 1;
+      int slot = hash(left, right) & mask;
+      while (this.states[slot] != 0 && (this.keys[slot << 1] != left || this.keys[(slot << 1) + 1] != right)) {
+        slot = (slot + 1) & mask;
+      }
+
+      if (this.states[slot] == 0) {
+        this.keys[slot << 1] = left;
+        this.keys[(slot << 1) + 1] = right;
+        this.size++;
+      }
+      this.states[slot] = state;
+      if (memo != null || this.memos != null) {
+        if (this.memos == null) {
+          this.memos = new Memo[this.states.length];
+        }
+        this.memos[slot] = memo;
+      }
+    }
+
+    public void putAll(@NonNull VisitTable other) {
+      if (other.states == null) {
+        return;
+      }
+      for (int slot = 0; slot < other.states.length; slot++) {
+        if (other.states[slot] != 0) {
+          this.put(other.keys[slot << 1], other.keys[(slot << 1) + 1], other.states[slot], other.memo(slot));
+        }
+      }
+    }
+
+    public boolean intersects(@NonNull VisitTable other) {
+      if (this.size == 0 || other.states == null) {
+        return false;
+      }
+      for (int slot = 0; slot < other.states.length; slot++) {
+        if (other.states[slot] != 0 && this.slot(other.keys[slot << 1], other.keys[(slot << 1) + 1]) >= 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void resize() {
+      Object[] keys = this.keys;
+      byte[] states = this.states;
+      Memo[] memos = this.memos;
+
+      this.keys = new Object[keys.length << 1];
+      this.states = new byte[states.length << 1];
+      this.memos = memos == null ? null : new Memo[states.length << 1];
+      this.size = 0;
+      for (int slot = 0; slot < states.length; slot++) {
+        if (states[slot] != 0) {
+          this.put(keys[slot << 1], keys[(slot << 1) + 1], states[slot], memos == null ? null : memos[slot]);
+        }
+      }
+    }
+
+    private static int hash(@NonNull Object left, @NonNull Object right) {
+      int hash = 31 * System.identityHashCode(left) + System.identityHashCode(right);
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  // counts the changes of the visits that report into it, and logs them if the changes of subgraphs are memoized
+  private static final class TrackingSink implements ChangeSink<Object> {
+
+    private final TraversalState state;
+    private final ChangeSink<Object> delegate;
+    private final List<Change<Object>> changeLog;
+    private int count;
+
+    public TrackingSink(@NonNull TraversalState state, @NonNull ChangeSink<Object> delegate, boolean logChanges) {
+      this.state = state;
+      this.delegate = delegate;
+      this.changeLog = logChanges ? new ArrayList<>() : null;
+    }
+
+    @Override
+    public void accept(@NonNull Change<Object> change) {
+      this.count++;
+      if (this.changeLog != null) {
+        this.changeLog.add(change);
+      }
+      this.delegate.accept(change);
+    }
+  }
+
+  private static final class Memo {
+
+    private final List<Change<Object>> changeLog;
+    private final int start;
+    private final int end;
+
+    public Memo(@NonNull List<Change<Object>> changeLog, int start, int end) {
+      this.changeLog = changeLog;
+      this.start = start;
+      this.end = end;
+    }
+
+    public @NonNull Collection<Change<Object>> changes() {
+      return this.changeLog.subList(this.start, this.end);
+    }
+  }
+
+  private static final class StackEntry {
+
+    private final DiffFrame frame;
+    // the visited objects, null if visits are not tracked. the sink and mark are only set for find visits
+    private final Object left;
+    private final Object right;
+    private final TrackingSink sink;
+    private final int mark;
+
+    public StackEntry(
+      @NonNull DiffFrame frame,
+      @Nullable Object left,
+      @Nullable Object right,
+      @Nullable TrackingSink sink,
+      int mark
+    ) {
+      this.frame = frame;
+      this.left = left;
+      this.right = right;
+      this.sink = sink;
+      this.mark = mark;
+    }
+  }
+
+  private static final class BranchTask<R> implements Runnable {
+
+    private final TraversalState state;
+    private final ObjectPath path;
+    private final ForkedBranch<R> branch;
+    private final int index;
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CompletableFuture<R> result = new CompletableFuture<>();
+
+    public BranchTask(
+      @NonNull TraversalState state,
+      @NonNull ObjectPath path,
+      @NonNull ForkedBranch<R> branch,
+      int index
+    ) {
+      this.state = state;
+      this.path = path.withTraversalState(state);
+      this.branch = branch;
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      // the branch is run by either the executor or the forking thread, whichever comes first
+      if (!this.claimed.compareAndSet(false, true)) {
+        return;
+      }
+
+      this.state.thread = Thread.currentThread();
+      try {
+        this.result.complete(this.branch.run(this.path, this.index));
+      } catch (Throwable throwable) {
+        this.result.completeExceptionally(throwable);
+      } finally {
+        this.state.thread = null;
+      }
+    }
+
+    public void await() {
+      // a failure of the branch is only propagated once its result is requested
+      this.result.handle((result, throwable) -> null).join();
+    }
+
+    public R join() {
+      try {
+        return this.result.join();
+      } catch (CompletionException exception) {
+        throw Internals.propagate(exception);
+      }
+    }
+  }
+}
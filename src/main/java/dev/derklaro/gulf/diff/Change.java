@@ -36,7 +36,8 @@
   protected final ObjectPath path;
 
   public Change(@NonNull ObjectPath path, @Nullable T leftElement, @Nullable T rightElement) {
-    this.path = path;
+    // the path might be a reused frame, make sure to hold an immutable copy
+    this.path = path.reify();
     this.leftElement = leftElement;
     this.rightElement = rightElement;
   }
@@ -0,0 +1,80 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.diff.array;
+
+import dev.derklaro.gulf.collection.ImmutableArrayList;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.util.Collection;
+import java.util.Collections;
+import lombok.NonNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+public final class IndexRangeChange<T> extends IndexedChange<T> {
+
+  private final int toIndex;
+  private final IndexRangeKind kind;
+  private final Collection<Change<T>> changes;
+
+  public IndexRangeChange(@NonNull ObjectPath path, int fromIndex, int toIndex, @NonNull IndexRangeKind kind) {
+    this(path, fromIndex, toIndex, kind, Collections.emptyList());
+  }
+
+  public IndexRangeChange(
+    @NonNull ObjectPath path,
+    int fromIndex,
+    int toIndex,
+    @NonNull IndexRangeKind kind,
+    @NonNull Collection<Change<T>> changes
+  ) {
+    super(path, null, null, fromIndex);
+    this.toIndex = toIndex;
+    this.kind = kind;
+    this.changes = ImmutableArrayList.fromCollection(changes);
+  }
+
+  public int fromIndex() {
+    return this.index();
+  }
+
+  // exclusive
+  public int toIndex() {
+    return this.toIndex;
+  }
+
+  public int length() {
+    return this.toIndex - this.index();
+  }
+
+  public @NonNull IndexRangeKind kind() {
+    return this.kind;
+  }
+
+  // the changes of the elements in a modified range, if the elements were compared deeply
+  @Unmodifiable
+  public @NonNull Collection<Change<T>> changes() {
+    return this.changes;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.diff.set;
+
+import dev.derklaro.gulf.collection.ImmutableArrayList;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.util.Collection;
+import java.util.Set;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+public final class SetChange<T, S extends Set<T>> extends Change<S> {
+
+  private final Collection<T> addedElements;
+  private final Collection<T> removedElements;
+
+  public SetChange(
+    @NonNull ObjectPath path,
+    @Nullable S leftElement,
+    @Nullable S rightElement,
+    @NonNull Collection<T> addedElements,
+    @NonNull Collection<T> removedElements
+  ) {
+    super(path, leftElement, rightElement);
+    this.addedElements = ImmutableArrayList.fromCollection(addedElements);
+    this.removedElements = ImmutableArrayList.fromCollection(removedElements);
+  }
+
+  @Unmodifiable
+  public @NonNull Collection<T> addedElements() {
+    return this.addedElements;
+  }
+
+  @Unmodifiable
+  public @NonNull Collection<T> removedElements() {
+    return this.removedElements;
+  }
+}
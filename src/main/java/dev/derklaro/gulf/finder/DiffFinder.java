@@ -26,6 +26,7 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
 import dev.derklaro.gulf.diff.Changes;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
@@ -33,6 +34,8 @@
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
+// the given path is immutable and can be kept after a call, for example in a change. the diff finders of this library
+// might receive reusable path frames instead (see ObjectPath#newFrame), which are only valid until the call returns
 @FunctionalInterface
 public interface DiffFinder<T> {
 
@@ -64,4 +67,59 @@ Collection<Change<T>> findChangesNullSafe(
     @NonNull Type fullType,
     @NonNull T left,
     @NonNull T right);
+
+  default void findChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @Nullable T left,
+    @Nullable T right,
+    @NonNull ChangeSink<T> sink
+  ) {
+    // go through the collection based method, it might be overridden to handle null values differently
+    for (Change<T> change : this.findChanges(gulf, path, fullType, left, right)) {
+      sink.accept(change);
+    }
+  }
+
+  default void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull T left,
+    @NonNull T right,
+    @NonNull ChangeSink<T> sink
+  ) {
+    // fall back to collecting all changes, diff finders should override this to push the changes directly
+    for (Change<T> change : this.findChangesNullSafe(gulf, path, fullType, left, right)) {
+      sink.accept(change);
+    }
+  }
+
+  default boolean hasChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @Nullable T left,
+    @Nullable T right
+  ) {
+    // go through the collection based method if one of them is null, it might be overridden to handle null values
+    if (left == null || right == null) {
+      return !this.findChanges(gulf, path, fullType, left, right).isEmpty();
+    }
+
+    // delegate to the null safe method
+    return this.hasChangesNullSafe(gulf, path, fullType, left, right);
+  }
+
+  default boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull T left,
+    @NonNull T right
+  ) {
+    // fall back to collecting all changes, diff finders should override this to stop at the first change
+    return !this.findChangesNullSafe(gulf, path, fullType, left, right).isEmpty();
+  }
 }
@@ -24,22 +24,17 @@
 
 package dev.derklaro.gulf.finder;
 
+import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
 import lombok.NonNull;
 
 @SuppressWarnings("unchecked")
 public final class DiffFinders {
 
-  private static final DiffFinder<Object> EQUALITY_BASED = (gulf, path, type, left, right) -> {
-    if (left.equals(right)) {
-      // no diff
-      return Changes.none();
-    } else {
-      Change<Object> change = new Change<>(path, left, right);
-      return Changes.singleton(change);
-    }
-  };
+  private static final DiffFinder<Object> EQUALITY_BASED = new EqualityBasedDiffFinder();
 
   private DiffFinders() {
     throw new UnsupportedOperationException();
@@ -48,4 +43,33 @@ private DiffFinders() {
   public static @NonNull <T> DiffFinder<T> equalityBased() {
     return (DiffFinder<T>) EQUALITY_BASED;
   }
+
+  private static final class EqualityBasedDiffFinder implements StreamingDiffFinder<Object> {
+
+    @Override
+    public void findChangesNullSafe(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Type fullType,
+      @NonNull Object left,
+      @NonNull Object right,
+      @NonNull ChangeSink<Object> sink
+    ) {
+      if (!left.equals(right)) {
+        Change<Object> change = new Change<>(path, left, right);
+        sink.accept(change);
+      }
+    }
+
+    @Override
+    public boolean hasChangesNullSafe(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Type fullType,
+      @NonNull Object left,
+      @NonNull Object right
+    ) {
+      return !left.equals(right);
+    }
+  }
 }
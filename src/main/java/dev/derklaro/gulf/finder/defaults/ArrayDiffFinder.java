@@ -26,27 +26,75 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.diff.ChangeSink;
 import dev.derklaro.gulf.diff.array.ArrayChange;
 import dev.derklaro.gulf.diff.array.ArrayElementAddOrRemove;
 import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
 import dev.derklaro.gulf.diff.array.IndexedChange;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.limit.DiffBudget;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
-public final class ArrayDiffFinder implements DiffFinder<Object[]> {
+public final class ArrayDiffFinder implements StreamingDiffFinder<Object[]>, IterativeDiffFinder {
+
+  private final boolean indexRanges;
+
+  public ArrayDiffFinder() {
+    this(false);
+  }
+
+  public ArrayDiffFinder(boolean indexRanges) {
+    this.indexRanges = indexRanges;
+  }
 
   @Override
-  public @NonNull Collection<Change<Object[]>> findChangesNullSafe(
+  public void findChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Object[] left,
-    @NonNull Object[] right
+    @NonNull Object[] right,
+    @NonNull ChangeSink<Object[]> sink
+  ) {
+    ElementCursor cursor = this.findChangesCursor(gulf, path, left, right, sink);
+    if (cursor != null) {
+      cursor.findChanges(gulf);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // the element comparisons are pushed onto the work stack instead of comparing them directly
+    ChangeSink<Object[]> arraySink = (ChangeSink<Object[]>) (ChangeSink<?>) sink;
+    ElementCursor cursor = this.findChangesCursor(gulf, path, (Object[]) left, (Object[]) right, arraySink);
+    return ElementDiffFrame.findChanges(gulf, cursor);
+  }
+
+  // returns null if the arrays were compared directly
+  private @Nullable ElementCursor findChangesCursor(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object[] left,
+    @NonNull Object[] right,
+    @NonNull ChangeSink<Object[]> sink
   ) {
     int leftSize = left.length;
     int rightSize = right.length;
@@ -54,91 +102,207 @@ public final class ArrayDiffFinder implements DiffFinder<Object[]> {
     if (leftSize == 0 || rightSize == 0) {
       // check if there are any changes
       if (leftSize == 0 && rightSize == 0) {
-        return Changes.none();
+        return null;
       }
 
       Collection<IndexedChange<Object>> elementChanges;
       // check if all elements were removed from the left or from the right collection
-      if (leftSize == 0) {
+      if (this.indexRanges) {
+        IndexRangeKind kind = leftSize == 0 ? IndexRangeKind.ADDED : IndexRangeKind.REMOVED;
+        elementChanges = Collections.singletonList(new IndexRangeChange<>(path, 0, Math.max(leftSize, rightSize), kind));
+      } else if (leftSize == 0) {
         elementChanges = new ArrayList<>(rightSize);
         // all elements of the right collection were removed
-        for (int idx = 0; idx < rightSize; idx++) {
+        for (int idx = 0; idx < rightSize && DiffBudget.reportChange(path); idx++) {
           ArrayElementAddOrRemove<Object> change = new ArrayElementAddOrRemove<>(path, null, right[idx], idx);
           elementChanges.add(change);
         }
       } else {
         elementChanges = new ArrayList<>(leftSize);
         // all elements of the right collection were removed
-        for (int idx = 0; idx < leftSize; idx++) {
+        for (int idx = 0; idx < leftSize && DiffBudget.reportChange(path); idx++) {
           ArrayElementAddOrRemove<Object> change = new ArrayElementAddOrRemove<>(path, left[idx], null, idx);
           elementChanges.add(change);
         }
       }
 
       // push out the change
-      return Changes.singleton(new ArrayChange<>(path, left, right, elementChanges));
+      sink.accept(new ArrayChange<>(path, left, right, elementChanges));
+      return null;
     }
 
-    // loop over both arrays and find the changes
-    int idx;
-    Collection<IndexedChange<Object>> elementChanges = new ArrayList<>();
-    for (idx = 0; idx < rightSize && idx < leftSize; idx++) {
-      Object leftElement = left[idx];
-      Object rightElement = right[idx];
+    // large arrays are compared in chunks if enabled or running in a parallel call, see CollectionDiffFinder
+    int commonSize = Math.min(leftSize, rightSize);
+    if (!this.indexRanges && gulf.chunking(path, commonSize)) {
+      Collection<IndexedChange<Object>> elementChanges = IndexChunks.findChanges(
+        gulf,
+        path,
+        commonSize,
+        idx -> left[idx],
+        idx -> right[idx]);
 
-      // check if both element are null - no diff
-      if (leftElement == null && rightElement == null) {
-        continue;
+      // the remaining elements were either added or removed
+      for (int idx = commonSize; idx < rightSize && DiffBudget.reportChange(path); idx++) {
+        elementChanges.add(new ArrayElementAddOrRemove<>(path, null, right[idx], idx));
       }
-
-      // get the changes between the element on the left and right
-      Type type = leftElement != null ? leftElement.getClass() : rightElement.getClass();
-      Collection<Change<Object>> changes = gulf.findChanges(type, path, leftElement, rightElement);
-
-      // add all changes for the current element if there are any
-      if (!changes.isEmpty()) {
-        // construct & register the change
-        ArrayElementChange<Object> change = new ArrayElementChange<>(path, changes, leftElement, rightElement, idx);
-        elementChanges.add(change);
+      for (int idx = commonSize; idx < leftSize && DiffBudget.reportChange(path); idx++) {
+        elementChanges.add(new ArrayElementAddOrRemove<>(path, left[idx], null, idx));
       }
-    }
 
-    boolean leftAtEnd = idx == leftSize;
-    boolean rightAtEnd = idx == rightSize;
-    // check if both iterators reached the end
-    if (leftAtEnd && rightAtEnd) {
-      return this.packChanges(path, left, right, elementChanges);
+      this.packChanges(path, left, right, elementChanges, sink);
+      return null;
     }
 
-    if (leftAtEnd) {
-      // only the right side contains more elements
-      for (; idx < rightSize; idx++) {
-        IndexedChange<Object> change = new ArrayElementAddOrRemove<>(path, null, right[idx], idx);
-        elementChanges.add(change);
-      }
-    } else {
-      // only the left side contains more elements
-      for (; idx < leftSize; idx++) {
-        IndexedChange<Object> change = new ArrayElementAddOrRemove<>(path, left[idx], null, idx);
-        elementChanges.add(change);
-      }
-    }
+    // loop over both arrays and find the changes, the element paths are pointing to the element index
+    return new IndexCursor(path, left, right, sink);
+  }
 
-    // build the full changes
-    return this.packChanges(path, left, right, elementChanges);
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object[] left,
+    @NonNull Object[] right
+  ) {
+    // an element was added or removed if the sizes are different, otherwise loop over both arrays
+    return left.length != right.length || new IndexCursor(path, left, right, null).hasChanges(gulf);
   }
 
-  private @NonNull Collection<Change<Object[]>> packChanges(
+  @Override
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    Object[] leftArray = (Object[]) left;
+    Object[] rightArray = (Object[]) right;
+    if (leftArray.length != rightArray.length) {
+      return ElementDiffFrame.completed(gulf, true);
+    }
+    return ElementDiffFrame.hasChanges(gulf, new IndexCursor(path, leftArray, rightArray, null));
+  }
+
+  private void packChanges(
     @NonNull ObjectPath path,
     @NonNull Object[] left,
     @NonNull Object[] right,
-    @NonNull Collection<IndexedChange<Object>> elementChanges
+    @NonNull Collection<IndexedChange<Object>> elementChanges,
+    @NonNull ChangeSink<Object[]> sink
   ) {
-    if (elementChanges.isEmpty()) {
-      // no changes
-      return Changes.none();
-    } else {
-      return Changes.singleton(new ArrayChange<>(path, left, right, elementChanges));
+    // only push out a change if there are any element changes
+    if (!elementChanges.isEmpty()) {
+      sink.accept(new ArrayChange<>(path, left, right, elementChanges));
+    }
+  }
+
+  // compares the elements at the same index, the sink is null if only checking for changes
+  private final class IndexCursor extends ElementCursor {
+
+    private final ObjectPath path;
+    private final Object[] left;
+    private final Object[] right;
+    private final ChangeSink<Object[]> sink;
+
+    private final ObjectPath elementFrame;
+    private final Collection<IndexedChange<Object>> elementChanges;
+    private final IndexRangeCollector modifiedRanges;
+    private int idx = -1;
+
+    public IndexCursor(
+      @NonNull ObjectPath path,
+      @NonNull Object[] left,
+      @NonNull Object[] right,
+      @Nullable ChangeSink<Object[]> sink
+    ) {
+      this.path = path;
+      this.left = left;
+      this.right = right;
+      this.sink = sink;
+
+      this.elementFrame = sink == null ? path : path.newFrame();
+      this.elementChanges = sink == null ? null : new ArrayList<>();
+      this.modifiedRanges = sink != null && ArrayDiffFinder.this.indexRanges
+        ? new IndexRangeCollector(path, this.elementChanges)
+        : null;
+    }
+
+    @Override
+    public boolean advance() {
+      int commonSize = Math.min(this.left.length, this.right.length);
+      while (this.idx + 1 < commonSize) {
+        if (this.sink != null && DiffBudget.exhausted(this.path)) {
+          return false;
+        }
+
+        // check if both element are null - no diff
+        int idx = ++this.idx;
+        Object leftElement = this.left[idx];
+        Object rightElement = this.right[idx];
+        if (leftElement == null && rightElement == null) {
+          continue;
+        }
+
+        this.elementType = leftElement != null ? leftElement.getClass() : rightElement.getClass();
+        this.elementPath = this.sink == null ? this.path : this.elementFrame.moveFrameToIndex(idx);
+        this.leftElement = leftElement;
+        this.rightElement = rightElement;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void compared(@NonNull Collection<Change<Object>> changes) {
+      // add all changes for the current element if there are any
+      if (!changes.isEmpty()) {
+        if (this.modifiedRanges != null) {
+          this.modifiedRanges.modified(this.idx, changes);
+        } else {
+          // construct & register the change
+          this.elementChanges.add(new ArrayElementChange<>(this.path, changes, this.leftElement, this.rightElement, this.idx));
+        }
+      }
+    }
+
+    @Override
+    public void complete() {
+      if (this.modifiedRanges != null) {
+        this.modifiedRanges.flush();
+      }
+
+      // the index after the last compared element
+      int idx = this.idx + 1;
+      int leftSize = this.left.length;
+      int rightSize = this.right.length;
+      boolean leftAtEnd = idx == leftSize;
+      boolean rightAtEnd = idx == rightSize;
+      // check if both arrays reached the end or if the limits of a bounded call were reached
+      if ((leftAtEnd && rightAtEnd) || DiffBudget.exhausted(this.path)) {
+        ArrayDiffFinder.this.packChanges(this.path, this.left, this.right, this.elementChanges, this.sink);
+        return;
+      }
+
+      if (ArrayDiffFinder.this.indexRanges) {
+        // all remaining elements were either added or removed
+        IndexRangeKind kind = leftAtEnd ? IndexRangeKind.ADDED : IndexRangeKind.REMOVED;
+        this.elementChanges.add(new IndexRangeChange<>(this.path, idx, Math.max(leftSize, rightSize), kind));
+      } else if (leftAtEnd) {
+        // only the right side contains more elements
+        for (; idx < rightSize && DiffBudget.reportChange(this.path); idx++) {
+          this.elementChanges.add(new ArrayElementAddOrRemove<>(this.path, null, this.right[idx], idx));
+        }
+      } else {
+        // only the left side contains more elements
+        for (; idx < leftSize && DiffBudget.reportChange(this.path); idx++) {
+          this.elementChanges.add(new ArrayElementAddOrRemove<>(this.path, this.left[idx], null, idx));
+        }
+      }
+
+      // build the full changes
+      ArrayDiffFinder.this.packChanges(this.path, this.left, this.right, this.elementChanges, this.sink);
     }
   }
 }
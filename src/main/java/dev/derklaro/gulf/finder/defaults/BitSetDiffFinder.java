@@ -0,0 +1,80 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.set.BitVectorChange;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.BitSet;
+import lombok.NonNull;
+
+public final class BitSetDiffFinder implements StreamingDiffFinder<BitSet> {
+
+  static <T> void findBitChanges(
+    @NonNull ObjectPath path,
+    @NonNull T left,
+    @NonNull T right,
+    @NonNull BitSet leftBits,
+    @NonNull BitSet rightBits,
+    @NonNull ChangeSink<T> sink
+  ) {
+    // the set bits which are only on one side, computed word by word
+    BitSet addedBits = (BitSet) rightBits.clone();
+    addedBits.andNot(leftBits);
+    BitSet removedBits = (BitSet) leftBits.clone();
+    removedBits.andNot(rightBits);
+
+    sink.accept(new BitVectorChange<>(path, left, right, addedBits, removedBits));
+  }
+
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull BitSet left,
+    @NonNull BitSet right,
+    @NonNull ChangeSink<BitSet> sink
+  ) {
+    // equals compares the underlying words without allocating anything
+    if (!left.equals(right)) {
+      findBitChanges(path, left, right, left, right, sink);
+    }
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull BitSet left,
+    @NonNull BitSet right
+  ) {
+    return !left.equals(right);
+  }
+}
@@ -26,29 +26,37 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
-import java.util.Collection;
 import lombok.NonNull;
 
-public final class BooleanDiffFinder implements DiffFinder<Boolean> {
+public final class BooleanDiffFinder implements StreamingDiffFinder<Boolean> {
 
   @Override
-  public @NonNull Collection<Change<Boolean>> findChangesNullSafe(
+  public void findChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Boolean left,
-    @NonNull Boolean right
+    @NonNull Boolean right,
+    @NonNull ChangeSink<Boolean> sink
   ) {
-    if (left.equals(right)) {
-      // no changes
-      return Changes.none();
-    } else {
+    if (this.hasChangesNullSafe(gulf, path, fullType, left, right)) {
       Change<Boolean> change = new Change<>(path, left, right);
-      return Changes.singleton(change);
+      sink.accept(change);
     }
   }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Boolean left,
+    @NonNull Boolean right
+  ) {
+    return !left.equals(right);
+  }
 }
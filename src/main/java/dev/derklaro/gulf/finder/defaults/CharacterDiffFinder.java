@@ -26,29 +26,37 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
-import java.util.Collection;
 import lombok.NonNull;
 
-public final class CharacterDiffFinder implements DiffFinder<Character> {
+public final class CharacterDiffFinder implements StreamingDiffFinder<Character> {
 
   @Override
-  public @NonNull Collection<Change<Character>> findChangesNullSafe(
+  public void findChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Character left,
-    @NonNull Character right
+    @NonNull Character right,
+    @NonNull ChangeSink<Character> sink
   ) {
-    if (left.equals(right)) {
-      // no changes
-      return Changes.none();
-    } else {
+    if (this.hasChangesNullSafe(gulf, path, fullType, left, right)) {
       Change<Character> change = new Change<>(path, left, right);
-      return Changes.singleton(change);
+      sink.accept(change);
     }
   }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Character left,
+    @NonNull Character right
+  ) {
+    return !left.equals(right);
+  }
 }
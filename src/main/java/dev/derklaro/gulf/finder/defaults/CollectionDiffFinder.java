@@ -26,28 +26,90 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.diff.ChangeSink;
 import dev.derklaro.gulf.diff.array.ArrayElementAddOrRemove;
 import dev.derklaro.gulf.diff.array.ArrayElementChange;
 import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
 import dev.derklaro.gulf.diff.array.IndexedChange;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.limit.DiffBudget;
 import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
-public final class CollectionDiffFinder implements DiffFinder<Collection<Object>> {
+public final class CollectionDiffFinder implements StreamingDiffFinder<Collection<Object>>, IterativeDiffFinder {
+
+  private final boolean indexRanges;
+
+  public CollectionDiffFinder() {
+    this(false);
+  }
+
+  public CollectionDiffFinder(boolean indexRanges) {
+    this.indexRanges = indexRanges;
+  }
 
   @Override
-  public @NonNull Collection<Change<Collection<Object>>> findChangesNullSafe(
+  public void findChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Collection<Object> left,
-    @NonNull Collection<Object> right
+    @NonNull Collection<Object> right,
+    @NonNull ChangeSink<Collection<Object>> sink
+  ) {
+    ElementCursor cursor = this.findChangesCursor(gulf, path, fullType, left, right, sink);
+    if (cursor != null) {
+      cursor.findChanges(gulf);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // the element comparisons are pushed onto the work stack instead of comparing them directly
+    ChangeSink<Collection<Object>> collectionSink = (ChangeSink<Collection<Object>>) (ChangeSink<?>) sink;
+    ElementCursor cursor = this.findChangesCursor(
+      gulf,
+      path,
+      fullType,
+      (Collection<Object>) left,
+      (Collection<Object>) right,
+      collectionSink);
+    return ElementDiffFrame.findChanges(gulf, cursor);
+  }
+
+  // returns null if the collections were compared directly
+  private @Nullable ElementCursor findChangesCursor(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Collection<Object> left,
+    @NonNull Collection<Object> right,
+    @NonNull ChangeSink<Collection<Object>> sink
   ) {
     int leftSize = left.size();
     int rightSize = right.size();
@@ -55,16 +117,22 @@ public final class CollectionDiffFinder implements DiffFinder<Collection<Object>
     if (leftSize == 0 || rightSize == 0) {
       // check if there are any changes
       if (leftSize == 0 && rightSize == 0) {
-        return Changes.none();
+        return null;
       }
 
       int idx = 0;
       Collection<IndexedChange<Object>> elementChanges;
       // check if all elements were removed from the left or from the right collection
-      if (leftSize == 0) {
+      if (this.indexRanges) {
+        IndexRangeKind kind = leftSize == 0 ? IndexRangeKind.ADDED : IndexRangeKind.REMOVED;
+        elementChanges = Collections.singletonList(new IndexRangeChange<>(path, 0, Math.max(leftSize, rightSize), kind));
+      } else if (leftSize == 0) {
         elementChanges = new ArrayList<>(rightSize);
         // all elements of the right collection were removed
         for (Object element : right) {
+          if (!DiffBudget.reportChange(path)) {
+            break;
+          }
           ArrayElementAddOrRemove<Object> change = new ArrayElementAddOrRemove<>(path, null, element, idx++);
           elementChanges.add(change);
         }
@@ -72,86 +140,387 @@ public final class CollectionDiffFinder implements DiffFinder<Collection<Object>
         elementChanges = new ArrayList<>(leftSize);
         // all elements of the right collection were removed
         for (Object element : left) {
+          if (!DiffBudget.reportChange(path)) {
+            break;
+          }
           ArrayElementAddOrRemove<Object> change = new ArrayElementAddOrRemove<>(path, element, null, idx++);
           elementChanges.add(change);
         }
       }
 
       // push out the change
-      return Changes.singleton(new CollectionChange<>(path, left, right, elementChanges));
+      sink.accept(new CollectionChange<>(path, left, right, elementChanges));
+      return null;
     }
 
-    // wrap the iterator for both collections
-    IndexedIteratorWrapper<Object> leftIter = new IndexedIteratorWrapper<>(left.iterator());
-    IndexedIteratorWrapper<Object> rightIter = new IndexedIteratorWrapper<>(right.iterator());
+    // match the elements by their key if a key extractor is registered for the element type
+    Function<Object, Object> keyExtractor = this.findKeyExtractor(gulf, fullType, left, right);
+    if (keyExtractor != null) {
+      return new KeyCursor(path, left, right, keyExtractor, sink);
+    }
+
+    // large lists are compared in chunks if enabled or running in a parallel call. index ranges are not supported as
+    // they would have to be merged across the chunk bounds
+    if (!this.indexRanges
+      && left instanceof List<?> && left instanceof RandomAccess
+      && right instanceof List<?> && right instanceof RandomAccess
+      && gulf.chunking(path, Math.min(leftSize, rightSize))) {
+      this.findChunkedChanges(gulf, path, (List<Object>) left, (List<Object>) right, sink);
+      return null;
+    }
+
+    // loop over both iterators and find the changes, the element paths are pointing to the element index
+    return new IndexCursor(path, left, right, sink);
+  }
+
+  private void findChunkedChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull List<Object> left,
+    @NonNull List<Object> right,
+    @NonNull ChangeSink<Collection<Object>> sink
+  ) {
+    // compare the elements at the indexes both lists have in common in chunks
+    int commonSize = Math.min(left.size(), right.size());
+    Collection<IndexedChange<Object>> elementChanges = IndexChunks.findChanges(gulf, path, commonSize, left::get, right::get);
 
-    // loop over both iterators and find the changes
-    Collection<IndexedChange<Object>> elementChanges = new ArrayList<>();
-    while (leftIter.hasNext() && rightIter.hasNext()) {
-      Object leftElement = leftIter.next();
-      Object rightElement = rightIter.next();
+    // the remaining elements were either added or removed
+    for (int idx = commonSize; idx < right.size() && DiffBudget.reportChange(path); idx++) {
+      elementChanges.add(new ArrayElementAddOrRemove<>(path, null, right.get(idx), idx));
+    }
+    for (int idx = commonSize; idx < left.size() && DiffBudget.reportChange(path); idx++) {
+      elementChanges.add(new ArrayElementAddOrRemove<>(path, left.get(idx), null, idx));
+    }
+
+    this.packChanges(path, left, right, elementChanges, sink);
+  }
 
-      // check if both elements are null - no diff
-      if (leftElement == null && rightElement == null) {
-        continue;
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Collection<Object> left,
+    @NonNull Collection<Object> right
+  ) {
+    ElementCursor cursor = this.hasChangesCursor(gulf, path, fullType, left, right);
+    return cursor == null || cursor.hasChanges(gulf);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    ElementCursor cursor = this.hasChangesCursor(gulf, path, fullType, (Collection<Object>) left, (Collection<Object>) right);
+    return cursor == null ? ElementDiffFrame.completed(gulf, true) : ElementDiffFrame.hasChanges(gulf, cursor);
+  }
+
+  // returns null if the collections are known to be different without comparing the elements
+  private @Nullable ElementCursor hasChangesCursor(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Collection<Object> left,
+    @NonNull Collection<Object> right
+  ) {
+    // an element was added or removed if the sizes are different
+    if (left.size() != right.size()) {
+      return null;
+    }
+
+    // match the elements by their key if a key extractor is registered for the element type, otherwise loop over
+    // both iterators. the checks stop at the first change
+    Function<Object, Object> keyExtractor = this.findKeyExtractor(gulf, fullType, left, right);
+    if (keyExtractor != null) {
+      return new KeyCursor(path, left, right, keyExtractor, null);
+    }
+    return new IndexCursor(path, left, right, null);
+  }
+
+  private @Nullable Function<Object, Object> findKeyExtractor(
+    @NonNull Gulf gulf,
+    @NonNull Type fullType,
+    @NonNull Collection<Object> left,
+    @NonNull Collection<Object> right
+  ) {
+    // prefer the declared element type if the collection type is parameterized
+    if (fullType instanceof ParameterizedType) {
+      Type[] typeArguments = ((ParameterizedType) fullType).getActualTypeArguments();
+      if (typeArguments.length == 1 && !(typeArguments[0] instanceof TypeVariable<?>)) {
+        return gulf.findCollectionKey(typeArguments[0]);
       }
+    }
 
-      // get the changes between the element on the left and right
-      Type type = leftElement != null ? leftElement.getClass() : rightElement.getClass();
-      Collection<Change<Object>> changes = gulf.findChanges(type, path, leftElement, rightElement);
+    // fall back to the runtime type of the first non-null element
+    Object element = firstNonNull(left);
+    if (element == null) {
+      element = firstNonNull(right);
+    }
+
+    return element == null ? null : gulf.findCollectionKey(element.getClass());
+  }
 
+  private static @NonNull Map<Object, Integer> indexByKey(
+    @NonNull Object[] elements,
+    @NonNull Function<Object, Object> keyExtractor
+  ) {
+    Map<Object, Integer> index = new HashMap<>((int) (elements.length / 0.75F) + 1);
+    for (int idx = 0; idx < elements.length; idx++) {
+      index.putIfAbsent(extractKey(elements[idx], keyExtractor), idx);
+    }
+    return index;
+  }
+
+  private static @Nullable Object extractKey(@Nullable Object element, @NonNull Function<Object, Object> keyExtractor) {
+    return element == null ? null : keyExtractor.apply(element);
+  }
+
+  private static @Nullable Object firstNonNull(@NonNull Collection<Object> collection) {
+    for (Object element : collection) {
+      if (element != null) {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  private void packChanges(
+    @NonNull ObjectPath path,
+    @NonNull Collection<Object> left,
+    @NonNull Collection<Object> right,
+    @NonNull Collection<IndexedChange<Object>> elementChanges,
+    @NonNull ChangeSink<Collection<Object>> sink
+  ) {
+    // only push out a change if there are any element changes
+    if (!elementChanges.isEmpty()) {
+      sink.accept(new CollectionChange<>(path, left, right, elementChanges));
+    }
+  }
+
+  // compares the elements at the same index, the sink is null if only checking for changes
+  private final class IndexCursor extends ElementCursor {
+
+    private final ObjectPath path;
+    private final Collection<Object> left;
+    private final Collection<Object> right;
+    private final ChangeSink<Collection<Object>> sink;
+
+    private final IndexedIteratorWrapper<Object> leftIter;
+    private final IndexedIteratorWrapper<Object> rightIter;
+
+    private final ObjectPath elementFrame;
+    private final Collection<IndexedChange<Object>> elementChanges;
+    private final IndexRangeCollector modifiedRanges;
+
+    public IndexCursor(
+      @NonNull ObjectPath path,
+      @NonNull Collection<Object> left,
+      @NonNull Collection<Object> right,
+      @Nullable ChangeSink<Collection<Object>> sink
+    ) {
+      this.path = path;
+      this.left = left;
+      this.right = right;
+      this.sink = sink;
+
+      // wrap the iterator for both collections
+      this.leftIter = new IndexedIteratorWrapper<>(left.iterator());
+      this.rightIter = new IndexedIteratorWrapper<>(right.iterator());
+
+      this.elementFrame = sink == null ? path : path.newFrame();
+      this.elementChanges = sink == null ? null : new ArrayList<>();
+      this.modifiedRanges = sink != null && CollectionDiffFinder.this.indexRanges
+        ? new IndexRangeCollector(path, this.elementChanges)
+        : null;
+    }
+
+    @Override
+    public boolean advance() {
+      while (this.leftIter.hasNext() && this.rightIter.hasNext()) {
+        if (this.sink != null && DiffBudget.exhausted(this.path)) {
+          return false;
+        }
+
+        // check if both elements are null - no diff
+        Object leftElement = this.leftIter.next();
+        Object rightElement = this.rightIter.next();
+        if (leftElement == null && rightElement == null) {
+          continue;
+        }
+
+        this.elementType = leftElement != null ? leftElement.getClass() : rightElement.getClass();
+        this.elementPath = this.sink == null ? this.path : this.elementFrame.moveFrameToIndex(this.leftIter.index);
+        this.leftElement = leftElement;
+        this.rightElement = rightElement;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void compared(@NonNull Collection<Change<Object>> changes) {
       // add all changes for the current element if there are any
       if (!changes.isEmpty()) {
         // construct the change, both iterators are at the same index so it doesn't matter from which we take the index
-        int idx = leftIter.index;
-        ArrayElementChange<Object> change = new ArrayElementChange<>(path, changes, leftElement, rightElement, idx);
+        int idx = this.leftIter.index;
+        if (this.modifiedRanges != null) {
+          this.modifiedRanges.modified(idx, changes);
+        } else {
+          this.elementChanges.add(new ArrayElementChange<>(this.path, changes, this.leftElement, this.rightElement, idx));
+        }
+      }
+    }
 
-        elementChanges.add(change);
+    @Override
+    public void complete() {
+      if (this.modifiedRanges != null) {
+        this.modifiedRanges.flush();
+      }
+
+      int leftSize = this.left.size();
+      int rightSize = this.right.size();
+      boolean leftAtEnd = (this.leftIter.index + 1) == leftSize;
+      boolean rightAtEnd = (this.rightIter.index + 1) == rightSize;
+      // check if both iterators reached the end or if the limits of a bounded call were reached
+      if ((leftAtEnd && rightAtEnd) || DiffBudget.exhausted(this.path)) {
+        CollectionDiffFinder.this.packChanges(this.path, this.left, this.right, this.elementChanges, this.sink);
+        return;
+      }
+
+      if (CollectionDiffFinder.this.indexRanges) {
+        // all remaining elements were either added or removed
+        IndexRangeKind kind = leftAtEnd ? IndexRangeKind.ADDED : IndexRangeKind.REMOVED;
+        this.elementChanges.add(new IndexRangeChange<>(this.path, this.leftIter.index + 1, Math.max(leftSize, rightSize), kind));
+      } else if (leftAtEnd) {
+        // only the right side contains more elements
+        while (this.rightIter.hasNext() && DiffBudget.reportChange(this.path)) {
+          // build the change
+          Object element = this.rightIter.next();
+          IndexedChange<Object> change = new ArrayElementAddOrRemove<>(this.path, null, element, this.rightIter.index);
+
+          this.elementChanges.add(change);
+        }
+      } else {
+        // only the left side contains more elements
+        while (this.leftIter.hasNext() && DiffBudget.reportChange(this.path)) {
+          // build the change
+          Object element = this.leftIter.next();
+          IndexedChange<Object> change = new ArrayElementAddOrRemove<>(this.path, element, null, this.leftIter.index);
+
+          this.elementChanges.add(change);
+        }
       }
+
+      // build the full changes
+      CollectionDiffFinder.this.packChanges(this.path, this.left, this.right, this.elementChanges, this.sink);
     }
+  }
+
+  // matches the elements by their key, the sink is null if only checking for changes
+  private final class KeyCursor extends ElementCursor {
+
+    private final ObjectPath path;
+    private final Collection<Object> left;
+    private final Collection<Object> right;
+    private final Function<Object, Object> keyExtractor;
+    private final ChangeSink<Collection<Object>> sink;
+
+    private final Iterator<Object> leftIter;
+    private final Object[] rightElements;
+    private final Map<Object, Integer> rightIndex;
+    private final boolean[] matched;
+
+    private final ObjectPath elementFrame;
+    private final Collection<IndexedChange<Object>> elementChanges;
+    private int leftIdx;
+    private int elementIdx;
+
+    public KeyCursor(
+      @NonNull ObjectPath path,
+      @NonNull Collection<Object> left,
+      @NonNull Collection<Object> right,
+      @NonNull Function<Object, Object> keyExtractor,
+      @Nullable ChangeSink<Collection<Object>> sink
+    ) {
+      this.path = path;
+      this.left = left;
+      this.right = right;
+      this.keyExtractor = keyExtractor;
+      this.sink = sink;
+
+      // index the right collection by the element keys, the first element wins for duplicate keys
+      this.leftIter = left.iterator();
+      this.rightElements = right.toArray();
+      this.rightIndex = indexByKey(this.rightElements, keyExtractor);
 
-    boolean leftAtEnd = (leftIter.index + 1) == leftSize;
-    boolean rightAtEnd = (rightIter.index + 1) == rightSize;
-    // check if both iterators reached the end
-    if (leftAtEnd && rightAtEnd) {
-      return this.packChanges(path, left, right, elementChanges);
+      this.matched = sink == null ? null : new boolean[this.rightElements.length];
+      this.elementFrame = sink == null ? path : path.newFrame();
+      this.elementChanges = sink == null ? null : new ArrayList<>();
     }
 
-    if (leftAtEnd) {
-      // only the right side contains more elements
-      while (rightIter.hasNext()) {
-        // build the change
-        Object element = rightIter.next();
-        IndexedChange<Object> change = new ArrayElementAddOrRemove<>(path, null, element, rightIter.index);
+    @Override
+    public boolean advance() {
+      // match each element of the left collection with the element on the right that has the same key
+      while (this.leftIter.hasNext()) {
+        if (this.sink != null && DiffBudget.exhausted(this.path)) {
+          return false;
+        }
 
-        elementChanges.add(change);
+        Object leftElement = this.leftIter.next();
+        Object key = extractKey(leftElement, this.keyExtractor);
+        Integer rightIdx = this.rightIndex.remove(key);
+        if (rightIdx == null) {
+          // no element with the same key on the right - the element was removed
+          if (this.sink == null) {
+            this.different = true;
+            return false;
+          }
+          int leftIdx = this.leftIdx++;
+          if (DiffBudget.reportChange(this.path)) {
+            this.elementChanges.add(new ArrayElementAddOrRemove<>(this.path, leftElement, null, leftIdx));
+          }
+          continue;
+        }
+
+        // both elements have the same key, only compare them if they are not both null
+        if (this.matched != null) {
+          this.matched[rightIdx] = true;
+        }
+        this.elementIdx = this.leftIdx++;
+        Object rightElement = this.rightElements[rightIdx];
+        if (leftElement != null || rightElement != null) {
+          this.elementType = leftElement != null ? leftElement.getClass() : rightElement.getClass();
+          this.elementPath = this.sink == null ? this.path : this.elementFrame.moveFrameToKey(key);
+          this.leftElement = leftElement;
+          this.rightElement = rightElement;
+          return true;
+        }
       }
-    } else {
-      // only the left side contains more elements
-      while (leftIter.hasNext()) {
-        // build the change
-        Object element = leftIter.next();
-        IndexedChange<Object> change = new ArrayElementAddOrRemove<>(path, element, null, leftIter.index);
-
-        elementChanges.add(change);
+      return false;
+    }
+
+    @Override
+    public void compared(@NonNull Collection<Change<Object>> changes) {
+      if (!changes.isEmpty()) {
+        this.elementChanges.add(new ArrayElementChange<>(this.path, changes, this.leftElement, this.rightElement, this.elementIdx));
       }
     }
 
-    // build the full changes
-    return this.packChanges(path, left, right, elementChanges);
-  }
+    @Override
+    public void complete() {
+      // all elements on the right which were not matched were added
+      for (int idx = 0; idx < this.rightElements.length && !DiffBudget.exhausted(this.path); idx++) {
+        if (!this.matched[idx] && DiffBudget.reportChange(this.path)) {
+          this.elementChanges.add(new ArrayElementAddOrRemove<>(this.path, null, this.rightElements[idx], idx));
+        }
+      }
 
-  private @NonNull Collection<Change<Collection<Object>>> packChanges(
-    @NonNull ObjectPath path,
-    @NonNull Collection<Object> left,
-    @NonNull Collection<Object> right,
-    @NonNull Collection<IndexedChange<Object>> elementChanges
-  ) {
-    if (elementChanges.isEmpty()) {
-      // no changes
-      return Changes.none();
-    } else {
-      return Changes.singleton(new CollectionChange<>(path, left, right, elementChanges));
+      CollectionDiffFinder.this.packChanges(this.path, this.left, this.right, this.elementChanges, this.sink);
     }
   }
 
@@ -0,0 +1,71 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import lombok.NonNull;
+
+// walks over the element pairs of two containers. the pairs are either compared directly, or pushed onto the work
+// stack of an iterative traversal by an ElementDiffFrame so that deeply nested containers can't overflow the stack
+abstract class ElementCursor {
+
+  // the element pair that is compared next, set by advance
+  protected Type elementType;
+  protected ObjectPath elementPath;
+  protected Object leftElement;
+  protected Object rightElement;
+
+  // set if the containers are different without comparing an element pair, only used when checking for changes
+  protected boolean different;
+
+  // moves to the next element pair that must be compared, returns false once all pairs were visited
+  public abstract boolean advance();
+
+  // called with the changes between the current element pair, only when collecting changes
+  public abstract void compared(@NonNull Collection<Change<Object>> changes);
+
+  // pushes out the changes of the containers once all element pairs were compared
+  public abstract void complete();
+
+  public void findChanges(@NonNull Gulf gulf) {
+    while (this.advance()) {
+      this.compared(gulf.findChanges(this.elementType, this.elementPath, this.leftElement, this.rightElement));
+    }
+    this.complete();
+  }
+
+  public boolean hasChanges(@NonNull Gulf gulf) {
+    while (this.advance()) {
+      if (gulf.hasChanges(this.elementType, this.elementPath, this.leftElement, this.rightElement)) {
+        return true;
+      }
+    }
+    return this.different;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.DiffFrame;
+import java.util.ArrayList;
+import java.util.Collection;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+final class ElementDiffFrame extends DiffFrame {
+
+  private final Gulf gulf;
+  private final ElementCursor cursor;
+  private final boolean collectChanges;
+
+  // the changes of the element pair that was pushed last, complete once this frame is resumed
+  private Collection<Change<Object>> pendingChanges;
+
+  // the cursor is null if the containers were already compared directly
+  private ElementDiffFrame(@NonNull Gulf gulf, @Nullable ElementCursor cursor, boolean collectChanges) {
+    this.gulf = gulf;
+    this.cursor = cursor;
+    this.collectChanges = collectChanges;
+  }
+
+  public static @NonNull DiffFrame findChanges(@NonNull Gulf gulf, @Nullable ElementCursor cursor) {
+    return new ElementDiffFrame(gulf, cursor, true);
+  }
+
+  public static @NonNull DiffFrame hasChanges(@NonNull Gulf gulf, @NonNull ElementCursor cursor) {
+    return new ElementDiffFrame(gulf, cursor, false);
+  }
+
+  public static @NonNull DiffFrame completed(@NonNull Gulf gulf, boolean changed) {
+    ElementDiffFrame frame = new ElementDiffFrame(gulf, null, false);
+    if (changed) {
+      frame.markChanged();
+    }
+    return frame;
+  }
+
+  @Override
+  public boolean resume() {
+    if (this.cursor == null) {
+      return true;
+    }
+
+    if (this.collectChanges) {
+      if (this.pendingChanges != null) {
+        this.cursor.compared(this.pendingChanges);
+        this.pendingChanges = null;
+      }
+
+      // the element frame of the cursor is only moved once the pushed comparison completed
+      while (this.cursor.advance()) {
+        Collection<Change<Object>> changes = new ArrayList<>();
+        DiffFinder<Object> diffFinder = this.gulf.findDiffFinder(this.cursor.elementType);
+        if (this.gulf.pushChanges(
+          diffFinder,
+          this.cursor.elementType,
+          this.cursor.elementPath,
+          this.cursor.leftElement,
+          this.cursor.rightElement,
+          changes::add)) {
+          this.pendingChanges = changes;
+          return false;
+        }
+        this.cursor.compared(changes);
+      }
+      this.cursor.complete();
+    } else {
+      // stop at the first change, a pushed comparison marks this frame as changed when it completes
+      while (!this.changed() && this.cursor.advance()) {
+        DiffFinder<Object> diffFinder = this.gulf.findDiffFinder(this.cursor.elementType);
+        Boolean changed = this.gulf.pushHasChanges(
+          diffFinder,
+          this.cursor.elementType,
+          this.cursor.elementPath,
+          this.cursor.leftElement,
+          this.cursor.rightElement);
+        if (changed == null) {
+          return false;
+        }
+        if (changed) {
+          this.markChanged();
+        }
+      }
+      if (this.cursor.different) {
+        this.markChanged();
+      }
+    }
+
+    return true;
+  }
+}
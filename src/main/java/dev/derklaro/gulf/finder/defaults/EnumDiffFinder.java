@@ -26,29 +26,37 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
-import java.util.Collection;
 import lombok.NonNull;
 
-public final class EnumDiffFinder implements DiffFinder<Enum<?>> {
+public final class EnumDiffFinder implements StreamingDiffFinder<Enum<?>> {
 
   @Override
-  public @NonNull Collection<Change<Enum<?>>> findChangesNullSafe(
+  public void findChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Enum<?> left,
-    @NonNull Enum<?> right
+    @NonNull Enum<?> right,
+    @NonNull ChangeSink<Enum<?>> sink
   ) {
-    if (left.ordinal() == right.ordinal()) {
-      // no change
-      return Changes.none();
-    } else {
+    if (this.hasChangesNullSafe(gulf, path, fullType, left, right)) {
       Change<Enum<?>> change = new Change<>(path, left, right);
-      return Changes.singleton(change);
+      sink.accept(change);
     }
   }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Enum<?> left,
+    @NonNull Enum<?> right
+  ) {
+    return left.ordinal() != right.ordinal();
+  }
 }
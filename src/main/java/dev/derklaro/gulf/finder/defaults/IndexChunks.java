@@ -0,0 +1,82 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntFunction;
+import lombok.NonNull;
+
+// compares the elements at the same index of two indexed sources in chunks which might run in parallel
+final class IndexChunks {
+
+  private IndexChunks() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static @NonNull Collection<IndexedChange<Object>> findChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    int size,
+    @NonNull IntFunction<Object> leftElements,
+    @NonNull IntFunction<Object> rightElements
+  ) {
+    int chunkSize = gulf.parallelThreshold();
+    int chunks = (size + chunkSize - 1) / chunkSize;
+    List<Collection<IndexedChange<Object>>> chunkChanges = gulf.forkChunks(path, chunks, (chunkPath, chunk) -> {
+      // each chunk needs its own frame as they might be compared at the same time
+      ObjectPath elementFrame = chunkPath.newFrame();
+      Collection<IndexedChange<Object>> changes = new ArrayList<>();
+      int end = Math.min(size, (chunk + 1) * chunkSize);
+      for (int idx = chunk * chunkSize; idx < end; idx++) {
+        Object leftElement = leftElements.apply(idx);
+        Object rightElement = rightElements.apply(idx);
+        if (leftElement == null && rightElement == null) {
+          continue;
+        }
+
+        Type type = leftElement != null ? leftElement.getClass() : rightElement.getClass();
+        ObjectPath elementPath = elementFrame.moveFrameToIndex(idx);
+        Collection<Change<Object>> elementChanges = gulf.findChanges(type, elementPath, leftElement, rightElement);
+        if (!elementChanges.isEmpty()) {
+          changes.add(new ArrayElementChange<>(path, elementChanges, leftElement, rightElement, idx));
+        }
+      }
+      return changes;
+    });
+
+    // concatenate the changes of the chunks in index order
+    Collection<IndexedChange<Object>> elementChanges = new ArrayList<>();
+    chunkChanges.forEach(elementChanges::addAll);
+    return elementChanges;
+  }
+}
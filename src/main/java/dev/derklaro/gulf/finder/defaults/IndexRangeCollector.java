@@ -0,0 +1,73 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.NonNull;
+
+// merges the changes of consecutive modified elements into one IndexRangeChange
+final class IndexRangeCollector {
+
+  private final ObjectPath path;
+  private final Collection<IndexedChange<Object>> target;
+
+  private int fromIndex = -1;
+  private int toIndex;
+  private List<Change<Object>> changes;
+
+  IndexRangeCollector(@NonNull ObjectPath path, @NonNull Collection<IndexedChange<Object>> target) {
+    this.path = path;
+    this.target = target;
+  }
+
+  public void modified(int index, @NonNull Collection<Change<Object>> elementChanges) {
+    // extend the current range if the element is directly after it
+    if (this.fromIndex >= 0 && this.toIndex == index) {
+      this.toIndex++;
+      this.changes.addAll(elementChanges);
+      return;
+    }
+
+    this.flush();
+    this.fromIndex = index;
+    this.toIndex = index + 1;
+    this.changes = new ArrayList<>(elementChanges);
+  }
+
+  public void flush() {
+    if (this.fromIndex >= 0) {
+      this.target.add(new IndexRangeChange<>(this.path, this.fromIndex, this.toIndex, IndexRangeKind.MODIFIED, this.changes));
+      this.fromIndex = -1;
+      this.changes = null;
+    }
+  }
+}
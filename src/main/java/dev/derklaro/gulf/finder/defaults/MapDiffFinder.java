@@ -26,82 +26,364 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.diff.ChangeSink;
 import dev.derklaro.gulf.diff.map.KeyedChange;
 import dev.derklaro.gulf.diff.map.MapChange;
 import dev.derklaro.gulf.diff.map.MapEntryAddOrRemove;
 import dev.derklaro.gulf.diff.map.MapEntryChange;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.limit.DiffBudget;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
-public final class MapDiffFinder implements DiffFinder<Map<Object, Object>> {
+public final class MapDiffFinder implements StreamingDiffFinder<Map<Object, Object>>, IterativeDiffFinder {
+
+  // marker for keys which are not in a map, as null is a valid value
+  private static final Object ABSENT = new Object();
+  private static final Comparator<Object> ORDINAL_ORDER = Comparator.comparingInt(key -> ((Enum<?>) key).ordinal());
 
   @Override
-  public @NonNull Collection<Change<Map<Object, Object>>> findChangesNullSafe(
+  public void findChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Map<Object, Object> left,
-    @NonNull Map<Object, Object> right
+    @NonNull Map<Object, Object> right,
+    @NonNull ChangeSink<Map<Object, Object>> sink
   ) {
-    // get the entries of the map
-    Set<Map.Entry<Object, Object>> leftEntries = left.entrySet();
-    Set<Map.Entry<Object, Object>> rightEntries = right.entrySet();
+    // enum maps iterate in ordinal order, so both can be walked at the same time without any lookup
+    if (left instanceof EnumMap && right instanceof EnumMap) {
+      new MergedEntryCursor(path, left, right, ORDINAL_ORDER, true, sink).findChanges(gulf);
+      return;
+    }
 
-    // loop over the left entries and check for remove & changes
     Collection<KeyedChange<Object, Object>> entryChanges = new ArrayList<>();
-    for (Map.Entry<Object, Object> entry : leftEntries) {
-      Object key = entry.getKey();
-      Object value = entry.getValue();
+    this.findHashMapChanges(gulf, path, left, right, entryChanges);
 
-      // check if the element still exists in the right map
-      if (right.containsKey(key)) {
-        Object rightValue = right.get(entry.getKey());
-        if (value == null && rightValue == null) {
-          // no change
-          continue;
+    // compile the changes if there are any
+    if (!entryChanges.isEmpty()) {
+      sink.accept(new MapChange<>(path, entryChanges, left, right));
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // the value comparisons are pushed onto the work stack instead of comparing them directly
+    Map<Object, Object> leftMap = (Map<Object, Object>) left;
+    Map<Object, Object> rightMap = (Map<Object, Object>) right;
+    ChangeSink<Map<Object, Object>> mapSink = (ChangeSink<Map<Object, Object>>) (ChangeSink<?>) sink;
+    if (leftMap instanceof EnumMap && rightMap instanceof EnumMap) {
+      return ElementDiffFrame.findChanges(gulf, new MergedEntryCursor(path, leftMap, rightMap, ORDINAL_ORDER, true, mapSink));
+    }
+
+    // large maps are compared in branches when running in a parallel call
+    if (gulf.forking(path) && leftMap.size() >= gulf.parallelThreshold()) {
+      this.findChangesNullSafe(gulf, path, fullType, leftMap, rightMap, mapSink);
+      return ElementDiffFrame.findChanges(gulf, null);
+    }
+    return ElementDiffFrame.findChanges(gulf, new HashCursor(path, leftMap, rightMap, mapSink));
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right
+  ) {
+    // an entry was added or removed if the sizes are different, otherwise loop over the left entries. both maps have
+    // the same size, so there can't be any added entries if all left keys are in the right map
+    return left.size() != right.size() || new HashCursor(path, left, right, null).hasChanges(gulf);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    Map<Object, Object> leftMap = (Map<Object, Object>) left;
+    Map<Object, Object> rightMap = (Map<Object, Object>) right;
+    if (leftMap.size() != rightMap.size()) {
+      return ElementDiffFrame.completed(gulf, true);
+    }
+    return ElementDiffFrame.hasChanges(gulf, new HashCursor(path, leftMap, rightMap, null));
+  }
+
+  private void findHashMapChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right,
+    @NonNull Collection<KeyedChange<Object, Object>> entryChanges
+  ) {
+    // loop over the left entries and check for remove & changes, the value paths are pointing to the entry key.
+    // forEach is used as it doesn't allocate an entry per mapping for maps like IdentityHashMap
+    int[] matched = new int[1];
+    if (gulf.forking(path) && left.size() >= gulf.parallelThreshold()) {
+      matched[0] = this.findSegmentChanges(gulf, path, left, right, entryChanges);
+    } else {
+      ObjectPath valueFrame = path.newFrame();
+      left.forEach((key, value) -> {
+        // forEach can't be stopped, the remaining entries are skipped instead
+        if (DiffBudget.exhausted(path)) {
+          return;
+        }
+        if (this.compareEntry(gulf, path, valueFrame, right, key, value, entryChanges)) {
+          matched[0]++;
         }
+      });
+    }
 
-        // check if there are differences between the left and right value
-        Type type = value != null ? value.getClass() : rightValue.getClass();
-        Collection<Change<Object>> changes = gulf.findChanges(type, path, value, rightValue);
+    this.findAddedEntries(path, left, right, matched[0], entryChanges);
+  }
 
-        // add the change if any way found
-        if (!changes.isEmpty()) {
-          MapEntryChange<Object, Object> change = new MapEntryChange<>(path, key, value, rightValue, changes);
-          entryChanges.add(change);
+  private void findAddedEntries(
+    @NonNull ObjectPath path,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right,
+    int matched,
+    @NonNull Collection<KeyedChange<Object, Object>> entryChanges
+  ) {
+    // if every key of the right map was matched there can't be any added entries
+    if (matched == right.size() || DiffBudget.exhausted(path)) {
+      return;
+    }
+
+    // loop over the right entries to find added elements
+    right.forEach((key, value) -> {
+      if (!DiffBudget.exhausted(path) && !left.containsKey(key) && DiffBudget.reportChange(path)) {
+        // the element was added to the right map
+        entryChanges.add(new MapEntryAddOrRemove<>(path, key, null, value));
+      }
+    });
+  }
+
+  private int findSegmentChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right,
+    @NonNull Collection<KeyedChange<Object, Object>> entryChanges
+  ) {
+    // split the left entries in iteration order into segments that are compared in their own branch
+    List<Map.Entry<Object, Object>> entries = new ArrayList<>(left.entrySet());
+    int segmentSize = gulf.parallelThreshold();
+    int segments = (entries.size() + segmentSize - 1) / segmentSize;
+    List<Collection<KeyedChange<Object, Object>>> segmentChanges = gulf.forkBranches(path, segments, (segmentPath, segment) -> {
+      ObjectPath valueFrame = segmentPath.newFrame();
+      Collection<KeyedChange<Object, Object>> changes = new ArrayList<>();
+      int end = Math.min(entries.size(), (segment + 1) * segmentSize);
+      for (int idx = segment * segmentSize; idx < end; idx++) {
+        Map.Entry<Object, Object> entry = entries.get(idx);
+        this.compareEntry(gulf, path, valueFrame, right, entry.getKey(), entry.getValue(), changes);
+      }
+      return changes;
+    });
+
+    // the changes of the segments are concatenated, which results in the same order as a sequential loop
+    int removed = 0;
+    for (Collection<KeyedChange<Object, Object>> changes : segmentChanges) {
+      for (KeyedChange<Object, Object> change : changes) {
+        if (change instanceof MapEntryAddOrRemove<?, ?>) {
+          removed++;
         }
+      }
+      entryChanges.addAll(changes);
+    }
+    return entries.size() - removed;
+  }
+
+  // returns true if the key is present in the right map
+  private boolean compareEntry(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull ObjectPath valueFrame,
+    @NonNull Map<Object, Object> right,
+    @Nullable Object key,
+    @Nullable Object value,
+    @NonNull Collection<KeyedChange<Object, Object>> entryChanges
+  ) {
+    // a single lookup per key, absent keys are distinguished from null values using the marker
+    Object rightValue = right.getOrDefault(key, ABSENT);
+    if (rightValue == ABSENT) {
+      // the element was removed from the right map
+      if (DiffBudget.reportChange(path)) {
+        entryChanges.add(new MapEntryAddOrRemove<>(path, key, value, null));
+      }
+      return false;
+    }
+
+    this.compareValues(gulf, path, valueFrame, key, value, rightValue, entryChanges);
+    return true;
+  }
+
+  private void compareValues(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull ObjectPath valueFrame,
+    @Nullable Object key,
+    @Nullable Object value,
+    @Nullable Object rightValue,
+    @NonNull Collection<KeyedChange<Object, Object>> entryChanges
+  ) {
+    if (value == null && rightValue == null) {
+      // no change
+      return;
+    }
+
+    // check if there are differences between the left and right value
+    Type type = value != null ? value.getClass() : rightValue.getClass();
+    Collection<Change<Object>> changes = gulf.findChanges(type, valueFrame.moveFrameToKey(key), value, rightValue);
+
+    // add the change if any way found
+    if (!changes.isEmpty()) {
+      entryChanges.add(new MapEntryChange<>(path, key, value, rightValue, changes));
+    }
+  }
+
+  // walks over the left entries and looks up the right values, the sink is null if only checking for changes
+  private final class HashCursor extends ElementCursor {
+
+    private final ObjectPath path;
+    private final Map<Object, Object> left;
+    private final Map<Object, Object> right;
+    private final ChangeSink<Map<Object, Object>> sink;
+
+    // identity hash maps allocate an entry per mapping when iterating their entries, so their keys and values are
+    // copied into an array using forEach instead (see findHashMapChanges)
+    private final Iterator<Map.Entry<Object, Object>> leftIterator;
+    private final Object[] leftMappings;
+    private int mappingIndex;
+
+    private final ObjectPath valueFrame;
+    private final Collection<KeyedChange<Object, Object>> entryChanges;
+    private Object key;
+    private Object value;
+    private int matched;
+
+    public HashCursor(
+      @NonNull ObjectPath path,
+      @NonNull Map<Object, Object> left,
+      @NonNull Map<Object, Object> right,
+      @Nullable ChangeSink<Map<Object, Object>> sink
+    ) {
+      this.path = path;
+      this.left = left;
+      this.right = right;
+      this.sink = sink;
+
+      if (left instanceof IdentityHashMap) {
+        Object[] leftMappings = new Object[left.size() * 2];
+        int[] index = new int[1];
+        left.forEach((key, value) -> {
+          leftMappings[index[0]++] = key;
+          leftMappings[index[0]++] = value;
+        });
+        this.leftIterator = null;
+        this.leftMappings = leftMappings;
       } else {
-        // the element was removed from the right map
-        KeyedChange<Object, Object> change = new MapEntryAddOrRemove<>(path, key, value, null);
-        entryChanges.add(change);
+        this.leftIterator = left.entrySet().iterator();
+        this.leftMappings = null;
+      }
+
+      this.valueFrame = sink == null ? path : path.newFrame();
+      this.entryChanges = sink == null ? null : new ArrayList<>();
+    }
+
+    @Override
+    public boolean advance() {
+      while (this.nextMapping()) {
+        if (this.sink != null && DiffBudget.exhausted(this.path)) {
+          return false;
+        }
+
+        // a single lookup per key, absent keys are distinguished from null values using the marker
+        Object key = this.key;
+        Object value = this.value;
+        Object rightValue = this.right.getOrDefault(key, ABSENT);
+        if (rightValue == ABSENT) {
+          // the element was removed from the right map
+          if (this.sink == null) {
+            this.different = true;
+            return false;
+          }
+          if (DiffBudget.reportChange(this.path)) {
+            this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, key, value, null));
+          }
+          continue;
+        }
+
+        this.matched++;
+        if (value == null && rightValue == null) {
+          continue;
+        }
+
+        this.elementType = value != null ? value.getClass() : rightValue.getClass();
+        this.elementPath = this.sink == null ? this.path : this.valueFrame.moveFrameToKey(key);
+        this.leftElement = value;
+        this.rightElement = rightValue;
+        return true;
       }
+      return false;
     }
 
-    // loop over the right entries to find removed elements
-    for (Map.Entry<Object, Object> entry : rightEntries) {
-      Object key = entry.getKey();
-      Object value = entry.getValue();
+    private boolean nextMapping() {
+      if (this.leftMappings != null) {
+        if (this.mappingIndex == this.leftMappings.length) {
+          return false;
+        }
+        this.key = this.leftMappings[this.mappingIndex++];
+        this.value = this.leftMappings[this.mappingIndex++];
+        return true;
+      }
 
-      if (!left.containsKey(key)) {
-        // the element was removed from the left map
-        KeyedChange<Object, Object> change = new MapEntryAddOrRemove<>(path, key, null, value);
-        entryChanges.add(change);
+      if (!this.leftIterator.hasNext()) {
+        return false;
       }
+      Map.Entry<Object, Object> entry = this.leftIterator.next();
+      this.key = entry.getKey();
+      this.value = entry.getValue();
+      return true;
     }
 
-    // compile the changes if there are any
-    if (!entryChanges.isEmpty()) {
-      return Changes.singleton(new MapChange<>(path, entryChanges, left, right));
-    } else {
-      // no changes
-      return Changes.none();
+    @Override
+    public void compared(@NonNull Collection<Change<Object>> changes) {
+      if (!changes.isEmpty()) {
+        this.entryChanges.add(new MapEntryChange<>(this.path, this.key, this.leftElement, this.rightElement, changes));
+      }
+    }
+
+    @Override
+    public void complete() {
+      MapDiffFinder.this.findAddedEntries(this.path, this.left, this.right, this.matched, this.entryChanges);
+      if (!this.entryChanges.isEmpty()) {
+        this.sink.accept(new MapChange<>(this.path, this.entryChanges, this.left, this.right));
+      }
     }
   }
 }
@@ -0,0 +1,178 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.map.KeyedChange;
+import dev.derklaro.gulf.diff.map.MapChange;
+import dev.derklaro.gulf.diff.map.MapEntryAddOrRemove;
+import dev.derklaro.gulf.diff.map.MapEntryChange;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+// walks two maps which iterate their keys in the same order at the same time, each key is only visited once: O(n + m).
+// the sink is null if only checking for changes
+final class MergedEntryCursor extends ElementCursor {
+
+  private final ObjectPath path;
+  private final Map<Object, Object> left;
+  private final Map<Object, Object> right;
+  private final Comparator<Object> comparator;
+  // keys that are in the same position must be the same instance, for enum maps with keys of different enum types
+  private final boolean identityKeys;
+  private final ChangeSink<Map<Object, Object>> sink;
+
+  private final Iterator<Map.Entry<Object, Object>> leftIterator;
+  private final Iterator<Map.Entry<Object, Object>> rightIterator;
+  private Map.Entry<Object, Object> leftEntry;
+  private Map.Entry<Object, Object> rightEntry;
+
+  private final ObjectPath valueFrame;
+  private final Collection<KeyedChange<Object, Object>> entryChanges;
+  private Object key;
+
+  public MergedEntryCursor(
+    @NonNull ObjectPath path,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right,
+    @NonNull Comparator<Object> comparator,
+    boolean identityKeys,
+    @Nullable ChangeSink<Map<Object, Object>> sink
+  ) {
+    this.path = path;
+    this.left = left;
+    this.right = right;
+    this.comparator = comparator;
+    this.identityKeys = identityKeys;
+    this.sink = sink;
+
+    this.leftIterator = left.entrySet().iterator();
+    this.rightIterator = right.entrySet().iterator();
+    this.leftEntry = SortedSetDiffFinder.nextOrNull(this.leftIterator);
+    this.rightEntry = SortedSetDiffFinder.nextOrNull(this.rightIterator);
+
+    this.valueFrame = sink == null ? path : path.newFrame();
+    this.entryChanges = sink == null ? null : new ArrayList<>();
+  }
+
+  @Override
+  public boolean advance() {
+    while (this.leftEntry != null && this.rightEntry != null) {
+      if (this.sink != null && DiffBudget.exhausted(this.path)) {
+        return false;
+      }
+
+      Object leftKey = this.leftEntry.getKey();
+      Object rightKey = this.rightEntry.getKey();
+      int result = this.comparator.compare(leftKey, rightKey);
+      if (result == 0 && (!this.identityKeys || leftKey == rightKey)) {
+        // both maps contain the key, check if there are differences between the values
+        Object value = this.leftEntry.getValue();
+        Object rightValue = this.rightEntry.getValue();
+        this.leftEntry = SortedSetDiffFinder.nextOrNull(this.leftIterator);
+        this.rightEntry = SortedSetDiffFinder.nextOrNull(this.rightIterator);
+        if (value == null && rightValue == null) {
+          continue;
+        }
+
+        this.key = leftKey;
+        this.elementType = value != null ? value.getClass() : rightValue.getClass();
+        this.elementPath = this.sink == null ? this.path : this.valueFrame.moveFrameToKey(leftKey);
+        this.leftElement = value;
+        this.rightElement = rightValue;
+        return true;
+      }
+
+      // the keys are different, both maps have the same size when only checking for changes
+      if (this.sink == null) {
+        this.different = true;
+        return false;
+      }
+
+      if (result == 0) {
+        // same ordinal of different enum types, can only happen for raw maps
+        if (DiffBudget.reportChange(this.path)) {
+          this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, leftKey, this.leftEntry.getValue(), null));
+        }
+        if (DiffBudget.reportChange(this.path)) {
+          this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, rightKey, null, this.rightEntry.getValue()));
+        }
+        this.leftEntry = SortedSetDiffFinder.nextOrNull(this.leftIterator);
+        this.rightEntry = SortedSetDiffFinder.nextOrNull(this.rightIterator);
+      } else if (result < 0) {
+        // the left key is not in the right map
+        if (DiffBudget.reportChange(this.path)) {
+          this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, leftKey, this.leftEntry.getValue(), null));
+        }
+        this.leftEntry = SortedSetDiffFinder.nextOrNull(this.leftIterator);
+      } else {
+        // the right key is not in the left map
+        if (DiffBudget.reportChange(this.path)) {
+          this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, rightKey, null, this.rightEntry.getValue()));
+        }
+        this.rightEntry = SortedSetDiffFinder.nextOrNull(this.rightIterator);
+      }
+    }
+
+    // one map has more entries than the other one
+    if (this.sink == null && this.leftEntry != this.rightEntry) {
+      this.different = true;
+    }
+    return false;
+  }
+
+  @Override
+  public void compared(@NonNull Collection<Change<Object>> changes) {
+    if (!changes.isEmpty()) {
+      this.entryChanges.add(new MapEntryChange<>(this.path, this.key, this.leftElement, this.rightElement, changes));
+    }
+  }
+
+  @Override
+  public void complete() {
+    // all remaining entries on either side were removed or added
+    while (this.leftEntry != null && DiffBudget.reportChange(this.path)) {
+      this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, this.leftEntry.getKey(), this.leftEntry.getValue(), null));
+      this.leftEntry = SortedSetDiffFinder.nextOrNull(this.leftIterator);
+    }
+    while (this.rightEntry != null && DiffBudget.reportChange(this.path)) {
+      this.entryChanges.add(new MapEntryAddOrRemove<>(this.path, this.rightEntry.getKey(), null, this.rightEntry.getValue()));
+      this.rightEntry = SortedSetDiffFinder.nextOrNull(this.rightIterator);
+    }
+
+    // compile the changes if there are any
+    if (!this.entryChanges.isEmpty()) {
+      this.sink.accept(new MapChange<>(this.path, this.entryChanges, this.left, this.right));
+    }
+  }
+}
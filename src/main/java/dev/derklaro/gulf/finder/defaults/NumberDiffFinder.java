@@ -26,20 +26,36 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
-public final class NumberDiffFinder implements DiffFinder<Number> {
+public final class NumberDiffFinder implements StreamingDiffFinder<Number> {
 
   @Override
-  public @NonNull Collection<Change<Number>> findChangesNullSafe(
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Number left,
+    @NonNull Number right,
+    @NonNull ChangeSink<Number> sink
+  ) {
+    if (this.hasChangesNullSafe(gulf, path, fullType, left, right)) {
+      Change<Number> change = new Change<>(path, left, right);
+      sink.accept(change);
+    }
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
@@ -48,40 +64,72 @@ public final class NumberDiffFinder implements DiffFinder<Number> {
   ) {
     // check if the number is the same
     if (left.equals(right)) {
-      return Changes.none();
+      return false;
     }
 
-    // marker if the value changed
-    boolean changed;
-
     // check if the number is special and needed extra handling
     Boolean specialNumberCompareResult = this.compareSpecialNumber(left, right);
     if (specialNumberCompareResult != null) {
-      changed = specialNumberCompareResult;
-    } else {
-      BigDecimal leftValue = this.toBigDecimal(left);
-      BigDecimal rightValue = this.toBigDecimal(right);
-
-      // compare both numbers, if possible
-      if (leftValue != null && rightValue != null) {
-        changed = leftValue.compareTo(rightValue) != 0;
-      } else {
-        // There might be an issue with converting one of the numbers
-        // If both numbers are null -> no change; If only one is null -> change
-        changed = !(leftValue == null && rightValue == null);
-      }
+      return specialNumberCompareResult;
     }
 
-    if (changed) {
-      // the element changed
-      Change<Number> change = new Change<>(path, left, right);
-      return Changes.singleton(change);
+    // compare the primitive wrappers without any allocation
+    boolean leftIntegral = isIntegral(left);
+    boolean rightIntegral = isIntegral(right);
+    if (leftIntegral && rightIntegral) {
+      return left.longValue() != right.longValue();
+    }
+    if (leftIntegral && isFloating(right)) {
+      return !exactlyEqual(left.longValue(), right.doubleValue());
+    }
+    if (rightIntegral && isFloating(left)) {
+      return !exactlyEqual(right.longValue(), left.doubleValue());
+    }
+    if (isFloating(left) && isFloating(right)) {
+      // every float is exactly representable as a double
+      double leftVal = left.doubleValue();
+      double rightVal = right.doubleValue();
+      return leftVal != rightVal && !(Double.isNaN(leftVal) && Double.isNaN(rightVal));
+    }
+
+    // big numbers or unknown number types
+    BigDecimal leftValue = this.toBigDecimal(left);
+    BigDecimal rightValue = this.toBigDecimal(right);
+
+    // compare both numbers, if possible
+    if (leftValue != null && rightValue != null) {
+      return leftValue.compareTo(rightValue) != 0;
     } else {
-      // no change
-      return Changes.none();
+      // There might be an issue with converting one of the numbers
+      // If both numbers are null -> no change; If only one is null -> change
+      return !(leftValue == null && rightValue == null);
     }
   }
 
+  private static boolean isIntegral(@NonNull Number number) {
+    return number instanceof Integer
+      || number instanceof Long
+      || number instanceof Short
+      || number instanceof Byte
+      || number instanceof AtomicInteger
+      || number instanceof AtomicLong;
+  }
+
+  private static boolean isFloating(@NonNull Number number) {
+    return number instanceof Double || number instanceof Float;
+  }
+
+  private static boolean exactlyEqual(long longValue, double doubleValue) {
+    // doubles outside the long range (and NaN) can never be equal to a long. Inside the range the conversion to long
+    // truncates the fraction, which is only equal if the double has no fraction and the integral part matches
+    if (!(doubleValue >= -0x1p63 && doubleValue < 0x1p63)) {
+      return false;
+    }
+
+    long truncated = (long) doubleValue;
+    return truncated == longValue && (double) truncated == doubleValue;
+  }
+
   private @Nullable Boolean compareSpecialNumber(@NonNull Number left, @NonNull Number right) {
     if (left instanceof Double && right instanceof Double) {
       double leftVal = left.doubleValue();
@@ -115,13 +163,12 @@ public final class NumberDiffFinder implements DiffFinder<Number> {
     }
 
     // convert a non-floating number
-    if (number instanceof Byte || number instanceof Short
-      || number instanceof Integer || number instanceof Long) {
+    if (isIntegral(number)) {
       return BigDecimal.valueOf(number.longValue());
     }
 
     // ensure the correctness of floating-point numbers
-    if (number instanceof Float || number instanceof Double) {
+    if (isFloating(number)) {
       return BigDecimal.valueOf(number.doubleValue());
     }
 
@@ -26,18 +26,32 @@
 
 import dev.derklaro.gulf.Gulf;
 import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.diff.Changes;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
 import dev.derklaro.gulf.path.ObjectPath;
 import java.lang.reflect.Type;
-import java.util.Collection;
 import java.util.regex.Pattern;
 import lombok.NonNull;
 
-public final class PatternDiffFinder implements DiffFinder<Pattern> {
+public final class PatternDiffFinder implements StreamingDiffFinder<Pattern> {
 
   @Override
-  public @NonNull Collection<Change<Pattern>> findChangesNullSafe(
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Pattern left,
+    @NonNull Pattern right,
+    @NonNull ChangeSink<Pattern> sink
+  ) {
+    if (this.hasChangesNullSafe(gulf, path, fullType, left, right)) {
+      Change<Pattern> change = new Change<>(path, left, right);
+      sink.accept(change);
+    }
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
@@ -52,13 +66,6 @@ public final class PatternDiffFinder implements DiffFinder<Pattern> {
     int leftFlags = left.flags();
     int rightFlags = right.flags();
 
-    if (leftPattern.equals(rightPattern) && leftFlags == rightFlags) {
-      // the original pattern and flags are matching - no diff
-      return Changes.none();
-    } else {
-      // there is a change
-      Change<Pattern> change = new Change<>(path, left, right);
-      return Changes.singleton(change);
-    }
+    return !leftPattern.equals(rightPattern) || leftFlags != rightFlags;
   }
 }
@@ -0,0 +1,309 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.collection.ImmutableArrayList;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.diff.array.PrimitiveArrayChange;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.internal.ArrayMismatch;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import lombok.NonNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+public abstract class PrimitiveArrayDiffFinder<A> implements StreamingDiffFinder<A> {
+
+  private static final Collection<PrimitiveArrayDiffFinder<?>> DEFAULTS = ImmutableArrayList.fromArray(
+    new PrimitiveArrayDiffFinder<?>[]{
+      new BooleanArrayDiffFinder(),
+      new ByteArrayDiffFinder(),
+      new CharArrayDiffFinder(),
+      new ShortArrayDiffFinder(),
+      new IntArrayDiffFinder(),
+      new LongArrayDiffFinder(),
+      new FloatArrayDiffFinder(),
+      new DoubleArrayDiffFinder()});
+
+  private final Class<A> arrayType;
+
+  private PrimitiveArrayDiffFinder(@NonNull Class<A> arrayType) {
+    this.arrayType = arrayType;
+  }
+
+  @Unmodifiable
+  public static @NonNull Collection<PrimitiveArrayDiffFinder<?>> defaults() {
+    return DEFAULTS;
+  }
+
+  public @NonNull Class<A> arrayType() {
+    return this.arrayType;
+  }
+
+  protected abstract int length(@NonNull A array);
+
+  protected abstract int mismatch(@NonNull A left, @NonNull A right, int from, int length);
+
+  protected abstract boolean elementEquals(@NonNull A left, @NonNull A right, int index);
+
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull A left,
+    @NonNull A right,
+    @NonNull ChangeSink<A> sink
+  ) {
+    int leftLength = this.length(left);
+    int rightLength = this.length(right);
+    int commonLength = Math.min(leftLength, rightLength);
+
+    // skip over equal regions in bulk and report each run of modified elements as one range, nothing gets boxed
+    int idx = 0;
+    Collection<IndexedChange<Object>> elementChanges = new ArrayList<>();
+    while (idx < commonLength && !DiffBudget.exhausted(path)) {
+      int mismatch = this.mismatch(left, right, idx, commonLength - idx);
+      if (mismatch < 0) {
+        break;
+      }
+
+      int fromIndex = idx + mismatch;
+      int toIndex = fromIndex + 1;
+      while (toIndex < commonLength && !this.elementEquals(left, right, toIndex)) {
+        toIndex++;
+      }
+
+      elementChanges.add(new IndexRangeChange<>(path, fromIndex, toIndex, IndexRangeKind.MODIFIED));
+      idx = toIndex;
+    }
+
+    // the elements after the common length were either added or removed
+    if (rightLength > commonLength) {
+      elementChanges.add(new IndexRangeChange<>(path, commonLength, rightLength, IndexRangeKind.ADDED));
+    } else if (leftLength > commonLength) {
+      elementChanges.add(new IndexRangeChange<>(path, commonLength, leftLength, IndexRangeKind.REMOVED));
+    }
+
+    if (!elementChanges.isEmpty()) {
+      sink.accept(new PrimitiveArrayChange<>(path, left, right, elementChanges));
+    }
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull A left,
+    @NonNull A right
+  ) {
+    int length = this.length(left);
+    return length != this.length(right) || this.mismatch(left, right, 0, length) >= 0;
+  }
+
+  private static final class BooleanArrayDiffFinder extends PrimitiveArrayDiffFinder<boolean[]> {
+
+    public BooleanArrayDiffFinder() {
+      super(boolean[].class);
+    }
+
+    @Override
+    protected int length(@NonNull boolean[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull boolean[] left, @NonNull boolean[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull boolean[] left, @NonNull boolean[] right, int index) {
+      return left[index] == right[index];
+    }
+  }
+
+  private static final class ByteArrayDiffFinder extends PrimitiveArrayDiffFinder<byte[]> {
+
+    public ByteArrayDiffFinder() {
+      super(byte[].class);
+    }
+
+    @Override
+    protected int length(@NonNull byte[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull byte[] left, @NonNull byte[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull byte[] left, @NonNull byte[] right, int index) {
+      return left[index] == right[index];
+    }
+  }
+
+  private static final class CharArrayDiffFinder extends PrimitiveArrayDiffFinder<char[]> {
+
+    public CharArrayDiffFinder() {
+      super(char[].class);
+    }
+
+    @Override
+    protected int length(@NonNull char[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull char[] left, @NonNull char[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull char[] left, @NonNull char[] right, int index) {
+      return left[index] == right[index];
+    }
+  }
+
+  private static final class ShortArrayDiffFinder extends PrimitiveArrayDiffFinder<short[]> {
+
+    public ShortArrayDiffFinder() {
+      super(short[].class);
+    }
+
+    @Override
+    protected int length(@NonNull short[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull short[] left, @NonNull short[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull short[] left, @NonNull short[] right, int index) {
+      return left[index] == right[index];
+    }
+  }
+
+  private static final class IntArrayDiffFinder extends PrimitiveArrayDiffFinder<int[]> {
+
+    public IntArrayDiffFinder() {
+      super(int[].class);
+    }
+
+    @Override
+    protected int length(@NonNull int[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull int[] left, @NonNull int[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull int[] left, @NonNull int[] right, int index) {
+      return left[index] == right[index];
+    }
+  }
+
+  private static final class LongArrayDiffFinder extends PrimitiveArrayDiffFinder<long[]> {
+
+    public LongArrayDiffFinder() {
+      super(long[].class);
+    }
+
+    @Override
+    protected int length(@NonNull long[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull long[] left, @NonNull long[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull long[] left, @NonNull long[] right, int index) {
+      return left[index] == right[index];
+    }
+  }
+
+  private static final class FloatArrayDiffFinder extends PrimitiveArrayDiffFinder<float[]> {
+
+    public FloatArrayDiffFinder() {
+      super(float[].class);
+    }
+
+    @Override
+    protected int length(@NonNull float[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull float[] left, @NonNull float[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull float[] left, @NonNull float[] right, int index) {
+      return Float.floatToIntBits(left[index]) == Float.floatToIntBits(right[index]);
+    }
+  }
+
+  private static final class DoubleArrayDiffFinder extends PrimitiveArrayDiffFinder<double[]> {
+
+    public DoubleArrayDiffFinder() {
+      super(double[].class);
+    }
+
+    @Override
+    protected int length(@NonNull double[] array) {
+      return array.length;
+    }
+
+    @Override
+    protected int mismatch(@NonNull double[] left, @NonNull double[] right, int from, int length) {
+      return ArrayMismatch.mismatch(left, right, from, length);
+    }
+
+    @Override
+    protected boolean elementEquals(@NonNull double[] left, @NonNull double[] right, int index) {
+      return Double.doubleToLongBits(left[index]) == Double.doubleToLongBits(right[index]);
+    }
+  }
+}
@@ -0,0 +1,396 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.array.ArrayChange;
+import dev.derklaro.gulf.diff.array.ArrayElementAddOrRemove;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.ArrayElementMove;
+import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+// diffs lists and object arrays as sequences (myers O(ND) diff) instead of comparing the elements by position.
+// elements are matched by their fingerprint (hash code by default) first, and only compared deeply if the
+// fingerprints are equal. element types should therefore implement hashCode consistently with their fields
+public final class SequenceDiffFinder implements StreamingDiffFinder<Object> {
+
+  private final ToIntFunction<Object> fingerprint;
+
+  public SequenceDiffFinder() {
+    this(Objects::hashCode);
+  }
+
+  public SequenceDiffFinder(@NonNull ToIntFunction<Object> fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static @NonNull List<Object> asList(@NonNull Object sequence) {
+    if (sequence instanceof Object[]) {
+      return Arrays.asList((Object[]) sequence);
+    }
+
+    if (sequence instanceof List<?>) {
+      return (List<Object>) sequence;
+    }
+
+    // any other collection, copy it once to get constant time random access
+    return new ArrayList<>((Collection<?>) sequence);
+  }
+
+  private static @NonNull Type elementType(@Nullable Object left, @Nullable Object right) {
+    return left != null ? left.getClass() : right.getClass();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    Sequences sequences = new Sequences(gulf, path, asList(left), asList(right));
+    Collection<IndexedChange<Object>> elementChanges = sequences.diff();
+    if (elementChanges.isEmpty()) {
+      return;
+    }
+
+    // wrap the element changes the same way as the positional array and collection diff finders
+    Change<?> change;
+    if (left instanceof Object[]) {
+      change = new ArrayChange<>(path, (Object[]) left, (Object[]) right, elementChanges);
+    } else {
+      change = new CollectionChange<>(path, (Collection<Object>) left, (Collection<Object>) right, elementChanges);
+    }
+
+    sink.accept((Change<Object>) change);
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    List<Object> leftElements = asList(left);
+    List<Object> rightElements = asList(right);
+    if (leftElements.size() != rightElements.size()) {
+      return true;
+    }
+
+    // if all elements are equal by position there are no edits, otherwise there is at least a modification or move
+    for (int idx = 0; idx < leftElements.size(); idx++) {
+      Object leftElement = leftElements.get(idx);
+      Object rightElement = rightElements.get(idx);
+      if (leftElement != rightElement
+        && (leftElement == null
+        || rightElement == null
+        || gulf.hasChanges(elementType(leftElement, rightElement), path, leftElement, rightElement))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private final class Sequences {
+
+    private final Gulf gulf;
+    private final ObjectPath path;
+
+    private final List<Object> left;
+    private final List<Object> right;
+    private final int[] leftFingerprints;
+    private final int[] rightFingerprints;
+
+    private Sequences(@NonNull Gulf gulf, @NonNull ObjectPath path, @NonNull List<Object> left, @NonNull List<Object> right) {
+      this.gulf = gulf;
+      this.path = path;
+      this.left = left;
+      this.right = right;
+
+      // cheap pre-pass, elements with different fingerprints are never compared deeply
+      this.leftFingerprints = this.fingerprints(left);
+      this.rightFingerprints = this.fingerprints(right);
+    }
+
+    private @NonNull int[] fingerprints(@NonNull List<Object> elements) {
+      int[] fingerprints = new int[elements.size()];
+      for (int idx = 0; idx < fingerprints.length; idx++) {
+        fingerprints[idx] = SequenceDiffFinder.this.fingerprint.applyAsInt(elements.get(idx));
+      }
+      return fingerprints;
+    }
+
+    private boolean matches(int leftIndex, int rightIndex) {
+      if (this.leftFingerprints[leftIndex] != this.rightFingerprints[rightIndex]) {
+        return false;
+      }
+
+      Object leftElement = this.left.get(leftIndex);
+      Object rightElement = this.right.get(rightIndex);
+      if (leftElement == rightElement) {
+        return true;
+      }
+      if (leftElement == null || rightElement == null) {
+        return false;
+      }
+      return !this.gulf.hasChanges(elementType(leftElement, rightElement), this.path, leftElement, rightElement);
+    }
+
+    public @NonNull Collection<IndexedChange<Object>> diff() {
+      int leftSize = this.left.size();
+      int rightSize = this.right.size();
+
+      // trim the common prefix and suffix, they are usually the biggest part of the sequences
+      int prefix = 0;
+      while (prefix < leftSize && prefix < rightSize && this.matches(prefix, prefix)) {
+        prefix++;
+      }
+      int suffix = 0;
+      while (suffix < leftSize - prefix
+        && suffix < rightSize - prefix
+        && this.matches(leftSize - suffix - 1, rightSize - suffix - 1)) {
+        suffix++;
+      }
+
+      // maps each left index to the right index it was kept at, -1 for deleted elements
+      int[] keptAt = new int[leftSize];
+      Arrays.fill(keptAt, -1);
+      for (int idx = 0; idx < prefix; idx++) {
+        keptAt[idx] = idx;
+      }
+      for (int idx = 0; idx < suffix; idx++) {
+        keptAt[leftSize - idx - 1] = rightSize - idx - 1;
+      }
+      this.myers(prefix, leftSize - suffix, prefix, rightSize - suffix, keptAt);
+
+      return this.collectChanges(keptAt);
+    }
+
+    private void myers(int leftFrom, int leftTo, int rightFrom, int rightTo, @NonNull int[] keptAt) {
+      int n = leftTo - leftFrom;
+      int m = rightTo - rightFrom;
+      if (n == 0 || m == 0) {
+        return;
+      }
+
+      // forward pass, remember the furthest reaching x per diagonal of each step for the backtracking
+      int max = n + m;
+      int offset = max + 1;
+      int[] v = new int[2 * max + 3];
+      List<int[]> trace = new ArrayList<>();
+
+      int steps = -1;
+      for (int d = 0; d <= max && steps < 0; d++) {
+        for (int k = -d; k <= d; k += 2) {
+          int x;
+          if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+            x = v[offset + k + 1];
+          } else {
+            x = v[offset + k - 1] + 1;
+          }
+
+          int y = x - k;
+          while (x < n && y < m && this.matches(leftFrom + x, rightFrom + y)) {
+            x++;
+            y++;
+          }
+
+          v[offset + k] = x;
+          if (x >= n && y >= m) {
+            steps = d;
+            break;
+          }
+        }
+        trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+      }
+
+      // walk back from the end, only the kept elements (the diagonals) need to be recorded
+      int x = n;
+      int y = m;
+      for (int d = steps; d > 0; d--) {
+        int[] previous = trace.get(d - 1);
+        int k = x - y;
+
+        int previousK;
+        if (k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1])) {
+          previousK = k + 1;
+        } else {
+          previousK = k - 1;
+        }
+
+        int previousX = previous[previousK + d - 1];
+        int previousY = previousX - previousK;
+        while (x > previousX && y > previousY) {
+          x--;
+          y--;
+          keptAt[leftFrom + x] = rightFrom + y;
+        }
+
+        x = previousX;
+        y = previousY;
+      }
+
+      while (x > 0 && y > 0) {
+        x--;
+        y--;
+        keptAt[leftFrom + x] = rightFrom + y;
+      }
+    }
+
+    private @NonNull Collection<IndexedChange<Object>> collectChanges(@NonNull int[] keptAt) {
+      // split the edits into hunks: runs of deleted and inserted elements between two kept elements
+      List<int[]> deletedHunks = new ArrayList<>();
+      List<int[]> insertedHunks = new ArrayList<>();
+      int leftIndex = 0;
+      int rightIndex = 0;
+      while (leftIndex < keptAt.length || rightIndex < this.right.size()) {
+        int leftStart = leftIndex;
+        while (leftIndex < keptAt.length && keptAt[leftIndex] < 0) {
+          leftIndex++;
+        }
+
+        int rightEnd = leftIndex < keptAt.length ? keptAt[leftIndex] : this.right.size();
+        if (leftStart != leftIndex || rightIndex != rightEnd) {
+          deletedHunks.add(new int[]{leftStart, leftIndex});
+          insertedHunks.add(new int[]{rightIndex, rightEnd});
+        }
+
+        // skip over the kept element
+        leftIndex++;
+        rightIndex = rightEnd + 1;
+      }
+
+      // deleted elements which were inserted elsewhere are moves
+      Map<Integer, ArrayDeque<Integer>> deletedByFingerprint = new HashMap<>();
+      for (int[] hunk : deletedHunks) {
+        for (int idx = hunk[0]; idx < hunk[1]; idx++) {
+          deletedByFingerprint.computeIfAbsent(this.leftFingerprints[idx], key -> new ArrayDeque<>()).add(idx);
+        }
+      }
+
+      boolean[] movedLeft = new boolean[keptAt.length];
+      boolean[] movedRight = new boolean[this.right.size()];
+      Collection<IndexedChange<Object>> moves = new ArrayList<>();
+      for (int[] hunk : insertedHunks) {
+        if (DiffBudget.exhausted(this.path)) {
+          break;
+        }
+
+        for (int idx = hunk[0]; idx < hunk[1]; idx++) {
+          ArrayDeque<Integer> candidates = deletedByFingerprint.get(this.rightFingerprints[idx]);
+          if (candidates == null) {
+            continue;
+          }
+
+          for (Integer candidate : candidates) {
+            if (this.matches(candidate, idx) && DiffBudget.reportChange(this.path)) {
+              candidates.remove(candidate);
+              movedLeft[candidate] = true;
+              movedRight[idx] = true;
+              moves.add(new ArrayElementMove<>(this.path, this.left.get(candidate), this.right.get(idx), candidate, idx));
+              break;
+            }
+          }
+        }
+      }
+
+      // the remaining elements of each hunk are paired up as modifications, the rest was added or removed
+      Collection<IndexedChange<Object>> elementChanges = new ArrayList<>();
+      ObjectPath elementFrame = this.path.newFrame();
+      for (int hunkIndex = 0; hunkIndex < deletedHunks.size() && !DiffBudget.exhausted(this.path); hunkIndex++) {
+        int[] deleted = deletedHunks.get(hunkIndex);
+        int[] inserted = insertedHunks.get(hunkIndex);
+
+        int deletedIndex = this.nextUnmoved(movedLeft, deleted[0], deleted[1]);
+        int insertedIndex = this.nextUnmoved(movedRight, inserted[0], inserted[1]);
+        while (deletedIndex < deleted[1] && insertedIndex < inserted[1] && !DiffBudget.exhausted(this.path)) {
+          Object leftElement = this.left.get(deletedIndex);
+          Object rightElement = this.right.get(insertedIndex);
+          if (leftElement == null || rightElement == null) {
+            if (DiffBudget.reportChange(this.path)) {
+              elementChanges.add(new ArrayElementAddOrRemove<>(this.path, leftElement, null, deletedIndex));
+            }
+            if (DiffBudget.reportChange(this.path)) {
+              elementChanges.add(new ArrayElementAddOrRemove<>(this.path, null, rightElement, insertedIndex));
+            }
+          } else {
+            Type type = elementType(leftElement, rightElement);
+            ObjectPath elementPath = elementFrame.moveFrameToIndex(deletedIndex);
+            Collection<Change<Object>> changes = this.gulf.findChanges(type, elementPath, leftElement, rightElement);
+            if (!changes.isEmpty()) {
+              elementChanges.add(new ArrayElementChange<>(this.path, changes, leftElement, rightElement, deletedIndex));
+            }
+          }
+
+          deletedIndex = this.nextUnmoved(movedLeft, deletedIndex + 1, deleted[1]);
+          insertedIndex = this.nextUnmoved(movedRight, insertedIndex + 1, inserted[1]);
+        }
+
+        while (deletedIndex < deleted[1] && DiffBudget.reportChange(this.path)) {
+          elementChanges.add(new ArrayElementAddOrRemove<>(this.path, this.left.get(deletedIndex), null, deletedIndex));
+          deletedIndex = this.nextUnmoved(movedLeft, deletedIndex + 1, deleted[1]);
+        }
+        while (insertedIndex < inserted[1] && DiffBudget.reportChange(this.path)) {
+          elementChanges.add(new ArrayElementAddOrRemove<>(this.path, null, this.right.get(insertedIndex), insertedIndex));
+          insertedIndex = this.nextUnmoved(movedRight, insertedIndex + 1, inserted[1]);
+        }
+      }
+
+      elementChanges.addAll(moves);
+      return elementChanges;
+    }
+
+    private int nextUnmoved(@NonNull boolean[] moved, int from, int to) {
+      while (from < to && moved[from]) {
+        from++;
+      }
+      return from;
+    }
+  }
+}
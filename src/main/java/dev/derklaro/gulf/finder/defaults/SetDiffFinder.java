@@ -0,0 +1,232 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.set.SetChange;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.FingerprintingDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class SetDiffFinder implements StreamingDiffFinder<Set<Object>> {
+
+  // true if instances of the class are only equal to themselves, these elements need to be matched structurally
+  private static final ClassValue<Boolean> IDENTITY_EQUALS = new ClassValue<Boolean>() {
+    @Override
+    protected @NonNull Boolean computeValue(@NonNull Class<?> type) {
+      try {
+        return type.getMethod("equals", Object.class).getDeclaringClass() == Object.class;
+      } catch (NoSuchMethodException exception) {
+        return Boolean.TRUE;
+      }
+    }
+  };
+
+  private static boolean hasIdentityEquals(@Nullable Object element) {
+    return element != null && IDENTITY_EQUALS.get(element.getClass());
+  }
+
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Set<Object> left,
+    @NonNull Set<Object> right,
+    @NonNull ChangeSink<Set<Object>> sink
+  ) {
+    // match the elements using the hash lookup of the sets: O(n + m)
+    List<Object> removed = new ArrayList<>();
+    for (Object element : left) {
+      if (!right.contains(element)) {
+        removed.add(element);
+      }
+    }
+
+    // if all left elements are in the right set and both have the same size, the sets are equal
+    List<Object> added = new ArrayList<>();
+    if (!removed.isEmpty() || left.size() != right.size()) {
+      for (Object element : right) {
+        if (!left.contains(element)) {
+          added.add(element);
+        }
+      }
+    }
+
+    this.matchStructurally(gulf, path, removed, added);
+    if (!removed.isEmpty() || !added.isEmpty()) {
+      sink.accept(new SetChange<>(path, left, right, added, removed));
+    }
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Set<Object> left,
+    @NonNull Set<Object> right
+  ) {
+    if (left.size() != right.size()) {
+      return true;
+    }
+
+    for (Object element : left) {
+      if (!right.contains(element)) {
+        // elements without a proper equals implementation might still have a structurally equal counterpart
+        if (hasIdentityEquals(element)) {
+          return this.hasChangesSlow(gulf, path, left, right);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean hasChangesSlow(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Set<Object> left,
+    @NonNull Set<Object> right
+  ) {
+    List<Object> removed = new ArrayList<>();
+    for (Object element : left) {
+      if (!right.contains(element)) {
+        removed.add(element);
+      }
+    }
+
+    List<Object> added = new ArrayList<>();
+    for (Object element : right) {
+      if (!left.contains(element)) {
+        added.add(element);
+      }
+    }
+
+    this.matchStructurally(gulf, path, removed, added);
+    return !removed.isEmpty() || !added.isEmpty();
+  }
+
+  private void matchStructurally(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull List<Object> removed,
+    @NonNull List<Object> added
+  ) {
+    // elements of classes which don't implement equals can't be looked up in a set, compare them deeply instead.
+    // only elements with the same class and fingerprint can match, so the added elements are bucketed by these
+    Map<ElementBucket, List<Object>> candidates = null;
+    for (Object element : added) {
+      if (hasIdentityEquals(element)) {
+        if (candidates == null) {
+          candidates = new HashMap<>();
+        }
+        candidates.computeIfAbsent(ElementBucket.of(gulf, element), bucket -> new ArrayList<>()).add(element);
+      }
+    }
+
+    // no added element can match structurally
+    if (candidates == null) {
+      return;
+    }
+
+    Set<Object> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object removedElement : removed) {
+      if (!hasIdentityEquals(removedElement)) {
+        continue;
+      }
+
+      List<Object> bucket = candidates.get(ElementBucket.of(gulf, removedElement));
+      if (bucket == null) {
+        continue;
+      }
+
+      Class<?> elementType = removedElement.getClass();
+      for (Iterator<Object> iterator = bucket.iterator(); iterator.hasNext(); ) {
+        Object addedElement = iterator.next();
+        if (!gulf.hasChanges(elementType, path, removedElement, addedElement)) {
+          iterator.remove();
+          matched.add(removedElement);
+          matched.add(addedElement);
+          break;
+        }
+      }
+    }
+
+    // the matched elements are neither added nor removed
+    if (!matched.isEmpty()) {
+      removed.removeIf(matched::contains);
+      added.removeIf(matched::contains);
+    }
+  }
+
+  private static final class ElementBucket {
+
+    private final Class<?> elementType;
+    private final int fingerprint;
+
+    private ElementBucket(@NonNull Class<?> elementType, int fingerprint) {
+      this.elementType = elementType;
+      this.fingerprint = fingerprint;
+    }
+
+    public static @NonNull ElementBucket of(@NonNull Gulf gulf, @NonNull Object element) {
+      // all elements of the class share a bucket if the diff finder can't fingerprint them
+      Class<?> elementType = element.getClass();
+      DiffFinder<Object> diffFinder = gulf.findDiffFinder(elementType);
+      int fingerprint = diffFinder instanceof FingerprintingDiffFinder
+        ? ((FingerprintingDiffFinder) diffFinder).fingerprint(gulf, element)
+        : 0;
+      return new ElementBucket(elementType, fingerprint);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof ElementBucket)) {
+        return false;
+      }
+      ElementBucket bucket = (ElementBucket) other;
+      return this.elementType == bucket.elementType && this.fingerprint == bucket.fingerprint;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * this.elementType.hashCode() + this.fingerprint;
+    }
+  }
+}
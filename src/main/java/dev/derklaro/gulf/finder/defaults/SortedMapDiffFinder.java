@@ -0,0 +1,136 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SortedMap;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class SortedMapDiffFinder implements StreamingDiffFinder<Map<Object, Object>>, IterativeDiffFinder {
+
+  private final MapDiffFinder fallbackDiffFinder = new MapDiffFinder();
+
+  private static @Nullable Comparator<Object> commonComparator(@NonNull Map<Object, Object> left, @NonNull Map<Object, Object> right) {
+    if (left instanceof SortedMap && right instanceof SortedMap) {
+      return SortedSetDiffFinder.commonComparator(((SortedMap<?, ?>) left).comparator(), ((SortedMap<?, ?>) right).comparator());
+    }
+    return null;
+  }
+
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right,
+    @NonNull ChangeSink<Map<Object, Object>> sink
+  ) {
+    // the maps can only be walked in order if both are sorted the same way
+    Comparator<Object> comparator = commonComparator(left, right);
+    if (comparator == null) {
+      this.fallbackDiffFinder.findChangesNullSafe(gulf, path, fullType, left, right, sink);
+      return;
+    }
+
+    // walk both maps in key order, each key is only visited once: O(n + m)
+    new MergedEntryCursor(path, left, right, comparator, false, sink).findChanges(gulf);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    Map<Object, Object> leftMap = (Map<Object, Object>) left;
+    Map<Object, Object> rightMap = (Map<Object, Object>) right;
+    Comparator<Object> comparator = commonComparator(leftMap, rightMap);
+    if (comparator == null) {
+      return this.fallbackDiffFinder.findChangesFrame(gulf, path, fullType, left, right, sink);
+    }
+
+    ChangeSink<Map<Object, Object>> mapSink = (ChangeSink<Map<Object, Object>>) (ChangeSink<?>) sink;
+    return ElementDiffFrame.findChanges(gulf, new MergedEntryCursor(path, leftMap, rightMap, comparator, false, mapSink));
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Map<Object, Object> left,
+    @NonNull Map<Object, Object> right
+  ) {
+    // an entry was added or removed if the sizes are different
+    if (left.size() != right.size()) {
+      return true;
+    }
+
+    Comparator<Object> comparator = commonComparator(left, right);
+    if (comparator == null) {
+      return this.fallbackDiffFinder.hasChangesNullSafe(gulf, path, fullType, left, right);
+    }
+
+    // both maps have the same size, so the keys must match pairwise in order
+    return new MergedEntryCursor(path, left, right, comparator, false, null).hasChanges(gulf);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    Map<Object, Object> leftMap = (Map<Object, Object>) left;
+    Map<Object, Object> rightMap = (Map<Object, Object>) right;
+    Comparator<Object> comparator = commonComparator(leftMap, rightMap);
+    if (comparator == null) {
+      return this.fallbackDiffFinder.hasChangesFrame(gulf, path, fullType, left, right);
+    }
+
+    // an entry was added or removed if the sizes are different
+    if (leftMap.size() != rightMap.size()) {
+      return ElementDiffFrame.completed(gulf, true);
+    }
+    return ElementDiffFrame.hasChanges(gulf, new MergedEntryCursor(path, leftMap, rightMap, comparator, false, null));
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.defaults;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.diff.set.SetChange;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class SortedSetDiffFinder implements StreamingDiffFinder<Set<Object>> {
+
+  @SuppressWarnings("unchecked")
+  private static final Comparator<Object> NATURAL_ORDER = (left, right) -> ((Comparable<Object>) left).compareTo(right);
+
+  private final SetDiffFinder fallbackDiffFinder = new SetDiffFinder();
+
+  @SuppressWarnings("unchecked")
+  static @Nullable Comparator<Object> commonComparator(@Nullable Comparator<?> left, @Nullable Comparator<?> right) {
+    // a null comparator means that the natural ordering of the elements is used
+    if (!Objects.equals(left, right)) {
+      return null;
+    }
+    return left == null ? NATURAL_ORDER : (Comparator<Object>) left;
+  }
+
+  static <T> @Nullable T nextOrNull(@NonNull Iterator<T> iterator) {
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  private static @Nullable Comparator<Object> commonComparator(@NonNull Set<Object> left, @NonNull Set<Object> right) {
+    if (left instanceof SortedSet && right instanceof SortedSet) {
+      return commonComparator(((SortedSet<?>) left).comparator(), ((SortedSet<?>) right).comparator());
+    }
+    return null;
+  }
+
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Set<Object> left,
+    @NonNull Set<Object> right,
+    @NonNull ChangeSink<Set<Object>> sink
+  ) {
+    // the sets can only be walked in order if both are sorted the same way
+    Comparator<Object> comparator = commonComparator(left, right);
+    if (comparator == null) {
+      this.fallbackDiffFinder.findChangesNullSafe(gulf, path, fullType, left, right, sink);
+      return;
+    }
+
+    // walk both sets in order, each element is only visited once: O(n + m)
+    Iterator<Object> leftIterator = left.iterator();
+    Iterator<Object> rightIterator = right.iterator();
+    boolean hasLeft = leftIterator.hasNext();
+    boolean hasRight = rightIterator.hasNext();
+    Object leftElement = hasLeft ? leftIterator.next() : null;
+    Object rightElement = hasRight ? rightIterator.next() : null;
+
+    List<Object> added = new ArrayList<>();
+    List<Object> removed = new ArrayList<>();
+    while (hasLeft && hasRight) {
+      int result = comparator.compare(leftElement, rightElement);
+      if (result <= 0) {
+        if (result < 0) {
+          // the left element is not in the right set
+          removed.add(leftElement);
+        }
+        hasLeft = leftIterator.hasNext();
+        leftElement = hasLeft ? leftIterator.next() : null;
+      }
+      if (result >= 0) {
+        if (result > 0) {
+          // the right element is not in the left set
+          added.add(rightElement);
+        }
+        hasRight = rightIterator.hasNext();
+        rightElement = hasRight ? rightIterator.next() : null;
+      }
+    }
+
+    // all remaining elements on either side were removed or added
+    if (hasLeft) {
+      removed.add(leftElement);
+      leftIterator.forEachRemaining(removed::add);
+    }
+    if (hasRight) {
+      added.add(rightElement);
+      rightIterator.forEachRemaining(added::add);
+    }
+
+    if (!removed.isEmpty() || !added.isEmpty()) {
+      sink.accept(new SetChange<>(path, left, right, added, removed));
+    }
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Set<Object> left,
+    @NonNull Set<Object> right
+  ) {
+    // an element was added or removed if the sizes are different
+    if (left.size() != right.size()) {
+      return true;
+    }
+
+    Comparator<Object> comparator = commonComparator(left, right);
+    if (comparator == null) {
+      return this.fallbackDiffFinder.hasChangesNullSafe(gulf, path, fullType, left, right);
+    }
+
+    // both sets have the same size, so the elements must match pairwise in order
+    Iterator<Object> rightIterator = right.iterator();
+    for (Object leftElement : left) {
+      if (comparator.compare(leftElement, rightIterator.next()) != 0) {
+        return true;
+      }
+    }
+
+    // no changes
+    return false;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.reflection;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+final class ClassDiffFrame extends DiffFrame {
+
+  private final Gulf gulf;
+  private final FieldDiffPlan[] fields;
+
+  private final ObjectPath path;
+  private final ObjectPath frame;
+  private final Object left;
+  private final Object right;
+  private final ChangeSink<Object> sink;
+
+  private int nextField;
+
+  // the sink is null if the frame only checks if there are any changes
+  public ClassDiffFrame(
+    @NonNull Gulf gulf,
+    @NonNull FieldDiffPlan[] fields,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @Nullable ChangeSink<Object> sink
+  ) {
+    this.gulf = gulf;
+    this.fields = fields;
+    this.path = path;
+    this.frame = sink != null ? path.newFrame() : path;
+    this.left = left;
+    this.right = right;
+    this.sink = sink;
+  }
+
+  @Override
+  public boolean resume() {
+    if (this.sink != null) {
+      // large objects are compared in branches when running in a parallel call
+      if (this.nextField == 0 && ClassDiffPlan.forkFields(this.gulf, this.fields, this.path, this.left, this.right, this.sink)) {
+        this.nextField = this.fields.length;
+        return true;
+      }
+
+      // the frame is shared by all fields, the pushed comparisons build their own path from it
+      while (this.nextField < this.fields.length && !DiffBudget.exhausted(this.path)) {
+        FieldDiffPlan field = this.fields[this.nextField++];
+        if (field.pushChanges(this.gulf, this.frame, this.left, this.right, this.sink)) {
+          return false;
+        }
+      }
+    } else {
+      // stop at the first change, a pushed comparison marks this frame as changed when it completes
+      while (!this.changed() && this.nextField < this.fields.length) {
+        Boolean changed = this.fields[this.nextField++].pushHasChanges(this.gulf, this.frame, this.left, this.right);
+        if (changed == null) {
+          return false;
+        }
+        if (changed) {
+          this.markChanged();
+        }
+      }
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.reflection;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+
+final class ClassDiffPlan {
+
+  private final FieldDiffPlan[] fields;
+
+  private ClassDiffPlan(@NonNull FieldDiffPlan[] fields) {
+    this.fields = fields;
+  }
+
+  public static @NonNull ClassDiffPlan compile(@NonNull Gulf gulf, @NonNull Class<?> clazz) {
+    Collection<Map.Entry<Field, MethodHandle>> fields = ReflectionDataLookup.findFields(clazz, gulf.lookupPerType());
+
+    int idx = 0;
+    FieldDiffPlan[] fieldPlans = new FieldDiffPlan[fields.size()];
+    for (Map.Entry<Field, MethodHandle> entry : fields) {
+      Field field = entry.getKey();
+      Type fieldType = field.getGenericType();
+
+      // the diff finder is resolved based on the declared field type, so it can be resolved once
+      Object defaultValue = gulf.getDefaultInstance(fieldType);
+      DiffFinder<Object> diffFinder = gulf.findDiffFinder(fieldType);
+      fieldPlans[idx++] = FieldDiffPlan.forField(
+        field.getName(),
+        field.getType(),
+        fieldType,
+        entry.getValue(),
+        defaultValue,
+        diffFinder);
+    }
+
+    return new ClassDiffPlan(fieldPlans);
+  }
+
+  public @NonNull FieldDiffPlan[] fields() {
+    return this.fields;
+  }
+
+  public void findChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    if (forkFields(gulf, this.fields, path, left, right, sink)) {
+      return;
+    }
+
+    // one frame is shared by all fields, it's only reified when a change is emitted or a nested path is built
+    ObjectPath frame = path.newFrame();
+    for (FieldDiffPlan field : this.fields) {
+      if (DiffBudget.exhausted(path)) {
+        break;
+      }
+      field.findChanges(gulf, frame, left, right, sink);
+    }
+  }
+
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    return new ClassDiffFrame(gulf, this.fields, path, left, right, sink);
+  }
+
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    return new ClassDiffFrame(gulf, this.fields, path, left, right, null);
+  }
+
+  public int fingerprint(@NonNull Object instance) {
+    return fingerprint(this.fields, instance);
+  }
+
+  public boolean hasChanges(@NonNull Gulf gulf, @NonNull ObjectPath path, @NonNull Object left, @NonNull Object right) {
+    for (FieldDiffPlan field : this.fields) {
+      if (field.hasChanges(gulf, path, left, right)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // combines the fingerprints of all fields compared in place, in declaration order
+  static int fingerprint(@NonNull FieldDiffPlan[] fields, @NonNull Object instance) {
+    int fingerprint = 1;
+    for (FieldDiffPlan field : fields) {
+      fingerprint = 31 * fingerprint + field.fingerprint(instance);
+    }
+    return fingerprint;
+  }
+
+  // compares each field in its own branch if running in a parallel call and the field values are large enough,
+  // returns false if the fields must be compared sequentially
+  static boolean forkFields(
+    @NonNull Gulf gulf,
+    @NonNull FieldDiffPlan[] fields,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    if (fields.length < 2 || !gulf.forking(path)) {
+      return false;
+    }
+
+    long estimatedSize = 0;
+    for (FieldDiffPlan field : fields) {
+      estimatedSize += field.estimateSize(left, right);
+    }
+    if (estimatedSize < gulf.parallelThreshold()) {
+      return false;
+    }
+
+    // each branch needs its own frame, the changes are pushed in declaration order once all branches completed
+    List<Collection<Change<Object>>> fieldChanges = gulf.forkBranches(path, fields.length, (branchPath, idx) -> {
+      Collection<Change<Object>> changes = new ArrayList<>();
+      fields[idx].findChanges(gulf, branchPath.newFrame(), left, right, changes::add);
+      return changes;
+    });
+    for (Collection<Change<Object>> changes : fieldChanges) {
+      changes.forEach(sink::accept);
+    }
+    return true;
+  }
+}
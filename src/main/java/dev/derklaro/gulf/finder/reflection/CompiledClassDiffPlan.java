@@ -0,0 +1,199 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.reflection;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.limit.DiffBudget;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.NonNull;
+
+final class CompiledClassDiffPlan {
+
+  private static final int NO_DIFFERENCE = -1;
+  private static final PrimitiveDifference ALWAYS_EQUAL = (left, right) -> NO_DIFFERENCE;
+
+  private final FieldDiffPlan[] fields;
+  private final FieldDiffPlan[] referenceFields;
+  private final FieldDiffPlan[][] fieldsFromDifference;
+  private final PrimitiveDifference firstPrimitiveDifference;
+
+  private CompiledClassDiffPlan(
+    @NonNull FieldDiffPlan[] fields,
+    @NonNull FieldDiffPlan[] referenceFields,
+    @NonNull FieldDiffPlan[][] fieldsFromDifference,
+    @NonNull PrimitiveDifference firstPrimitiveDifference
+  ) {
+    this.fields = fields;
+    this.referenceFields = referenceFields;
+    this.fieldsFromDifference = fieldsFromDifference;
+    this.firstPrimitiveDifference = firstPrimitiveDifference;
+  }
+
+  public static @NonNull CompiledClassDiffPlan compile(@NonNull Gulf gulf, @NonNull Class<?> clazz) {
+    FieldDiffPlan[] fields = ClassDiffPlan.compile(gulf, clazz).fields();
+
+    List<FieldDiffPlan> referenceFields = new ArrayList<>();
+    List<MethodHandle> equalityChecks = new ArrayList<>();
+    for (FieldDiffPlan field : fields) {
+      MethodHandle equalityCheck = field.equalityCheck();
+      if (equalityCheck != null) {
+        equalityChecks.add(equalityCheck);
+      } else {
+        referenceFields.add(field);
+      }
+    }
+
+    // chain all primitive equality checks into one handle of type (Object, Object)int that stops at the first
+    // difference and returns the index of the primitive field. the handle is bound to a class of its own if the jvm
+    // supports it, so that the chain gets inlined into a single compiled method
+    PrimitiveDifference firstPrimitiveDifference = ALWAYS_EQUAL;
+    if (!equalityChecks.isEmpty()) {
+      MethodHandle chain = MethodHandles.dropArguments(
+        MethodHandles.constant(int.class, NO_DIFFERENCE),
+        0,
+        Object.class,
+        Object.class);
+      for (int idx = equalityChecks.size() - 1; idx >= 0; idx--) {
+        MethodHandle difference = MethodHandles.dropArguments(
+          MethodHandles.constant(int.class, idx),
+          0,
+          Object.class,
+          Object.class);
+        chain = MethodHandles.guardWithTest(equalityChecks.get(idx), chain, difference);
+      }
+      firstPrimitiveDifference = PrimitiveDifferences.define(chain);
+    }
+
+    // the primitive fields before the first difference are known to be equal, so only the reference fields before
+    // it and all fields starting at the difference must be compared. the fields are kept in declaration order
+    FieldDiffPlan[][] fieldsFromDifference = new FieldDiffPlan[equalityChecks.size()][];
+    for (int difference = 0; difference < fieldsFromDifference.length; difference++) {
+      int primitiveIndex = 0;
+      List<FieldDiffPlan> fieldsToCompare = new ArrayList<>();
+      for (FieldDiffPlan field : fields) {
+        if (field.equalityCheck() == null || primitiveIndex++ >= difference) {
+          fieldsToCompare.add(field);
+        }
+      }
+      fieldsFromDifference[difference] = fieldsToCompare.toArray(new FieldDiffPlan[0]);
+    }
+
+    return new CompiledClassDiffPlan(
+      fields,
+      referenceFields.toArray(new FieldDiffPlan[0]),
+      fieldsFromDifference,
+      firstPrimitiveDifference);
+  }
+
+  public void findChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    FieldDiffPlan[] fields = this.fieldsToCompare(left, right);
+    if (ClassDiffPlan.forkFields(gulf, fields, path, left, right, sink)) {
+      return;
+    }
+
+    ObjectPath frame = path.newFrame();
+    for (FieldDiffPlan field : fields) {
+      if (DiffBudget.exhausted(path)) {
+        break;
+      }
+      field.findChanges(gulf, frame, left, right, sink);
+    }
+  }
+
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    return new ClassDiffFrame(gulf, this.fieldsToCompare(left, right), path, left, right, sink);
+  }
+
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    DiffFrame frame = new ClassDiffFrame(gulf, this.referenceFields, path, left, right, null);
+    if (!this.primitiveFieldsEqual(left, right)) {
+      frame.markChanged();
+    }
+    return frame;
+  }
+
+  public boolean hasChanges(@NonNull Gulf gulf, @NonNull ObjectPath path, @NonNull Object left, @NonNull Object right) {
+    if (!this.primitiveFieldsEqual(left, right)) {
+      return true;
+    }
+
+    for (FieldDiffPlan field : this.referenceFields) {
+      if (field.hasChanges(gulf, path, left, right)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int fingerprint(@NonNull Object instance) {
+    return ClassDiffPlan.fingerprint(this.fields, instance);
+  }
+
+  private boolean primitiveFieldsEqual(@NonNull Object left, @NonNull Object right) {
+    return this.firstPrimitiveDifference(left, right) == NO_DIFFERENCE;
+  }
+
+  private @NonNull FieldDiffPlan[] fieldsToCompare(@NonNull Object left, @NonNull Object right) {
+    int difference = this.firstPrimitiveDifference(left, right);
+    if (difference == NO_DIFFERENCE) {
+      // only the reference fields can have changes
+      return this.referenceFields;
+    }
+    // all fields are compared if the primitive fields could not be checked
+    return difference < this.fieldsFromDifference.length ? this.fieldsFromDifference[difference] : this.fields;
+  }
+
+  private int firstPrimitiveDifference(@NonNull Object left, @NonNull Object right) {
+    try {
+      return this.firstPrimitiveDifference.firstDifference(left, right);
+    } catch (Throwable throwable) {
+      // let the field plans deal with the issue
+      return Integer.MAX_VALUE;
+    }
+  }
+}
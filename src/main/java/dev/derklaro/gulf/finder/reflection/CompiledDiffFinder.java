@@ -0,0 +1,105 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.reflection;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.FingerprintingDiffFinder;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Type;
+import java.util.Map;
+import lombok.NonNull;
+
+public final class CompiledDiffFinder implements StreamingDiffFinder<Object>, IterativeDiffFinder, FingerprintingDiffFinder {
+
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    CompiledClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    plan.findChanges(gulf, path, left, right, sink);
+  }
+
+  @Override
+  public boolean hasChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    CompiledClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    return plan.hasChanges(gulf, path, left, right);
+  }
+
+  @Override
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    CompiledClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    return plan.findChangesFrame(gulf, path, left, right, sink);
+  }
+
+  @Override
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    CompiledClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    return plan.hasChangesFrame(gulf, path, left, right);
+  }
+
+  @Override
+  public int fingerprint(@NonNull Gulf gulf, @NonNull Object value) {
+    CompiledClassDiffPlan plan = this.getDiffPlan(gulf, value.getClass());
+    return plan.fingerprint(value);
+  }
+
+  private @NonNull CompiledClassDiffPlan getDiffPlan(@NonNull Gulf gulf, @NonNull Class<?> clazz) {
+    // the plan contains resolved information of the gulf instance, so the plans are cached per instance
+    Map<Class<?>, CompiledClassDiffPlan> planCache = gulf.planCache(this);
+    CompiledClassDiffPlan plan = planCache.get(clazz);
+    if (plan == null) {
+      plan = planCache.computeIfAbsent(clazz, type -> CompiledClassDiffPlan.compile(gulf, type));
+    }
+    return plan;
+  }
+}
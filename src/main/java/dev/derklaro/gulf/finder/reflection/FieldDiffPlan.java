@@ -0,0 +1,466 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.reflection;
+
+import dev.derklaro.gulf.Gulf;
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.defaults.BooleanDiffFinder;
+import dev.derklaro.gulf.finder.defaults.CharacterDiffFinder;
+import dev.derklaro.gulf.finder.defaults.NumberDiffFinder;
+import dev.derklaro.gulf.internal.Internals;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+abstract class FieldDiffPlan {
+
+  private static final MethodType LONG_GETTER_TYPE = MethodType.methodType(long.class, Object.class);
+  private static final MethodType DOUBLE_GETTER_TYPE = MethodType.methodType(double.class, Object.class);
+
+  private static final MethodHandle LONG_EQUALS = findEqualityCheck(long.class);
+  private static final MethodHandle DOUBLE_EQUALS = findEqualityCheck(double.class);
+  private static final MethodHandle BOOLEAN_EQUALS = findEqualityCheck(boolean.class);
+
+  protected final String name;
+
+  protected FieldDiffPlan(@NonNull String name) {
+    this.name = name;
+  }
+
+  public static @NonNull FieldDiffPlan forField(
+    @NonNull String name,
+    @NonNull Class<?> rawType,
+    @NonNull Type fieldType,
+    @NonNull MethodHandle getter,
+    @Nullable Object defaultValue,
+    @NonNull DiffFinder<Object> diffFinder
+  ) {
+    // primitive fields can be compared in place, but only if the default diff finder for the type is used
+    if (rawType.isPrimitive()) {
+      DiffFinder<?> primitiveDiffFinder = diffFinder;
+      if (rawType == boolean.class && primitiveDiffFinder instanceof BooleanDiffFinder) {
+        return new BooleanFieldDiffPlan(name, getter);
+      }
+      if (rawType == char.class && primitiveDiffFinder instanceof CharacterDiffFinder) {
+        return new IntegralFieldDiffPlan(name, rawType, getter.asType(LONG_GETTER_TYPE));
+      }
+      if (primitiveDiffFinder instanceof NumberDiffFinder) {
+        if (rawType == float.class || rawType == double.class) {
+          return new FloatingFieldDiffPlan(name, rawType, getter.asType(DOUBLE_GETTER_TYPE));
+        } else {
+          return new IntegralFieldDiffPlan(name, rawType, getter.asType(LONG_GETTER_TYPE));
+        }
+      }
+
+      // a custom diff finder is used for the primitive type, pass the boxed values to it
+      getter = getter.asType(getter.type().generic());
+    }
+
+    return new ObjectFieldDiffPlan(name, fieldType, getter, defaultValue, diffFinder);
+  }
+
+  private static @NonNull MethodHandle findEqualityCheck(@NonNull Class<?> primitiveType) {
+    try {
+      MethodType type = MethodType.methodType(boolean.class, primitiveType, primitiveType);
+      return MethodHandles.lookup().findStatic(FieldDiffPlan.class, "valuesEqual", type);
+    } catch (NoSuchMethodException | IllegalAccessException exception) {
+      throw new ExceptionInInitializerError(exception);
+    }
+  }
+
+  private static boolean valuesEqual(long left, long right) {
+    return left == right;
+  }
+
+  private static boolean valuesEqual(double left, double right) {
+    return Double.compare(left, right) == 0;
+  }
+
+  private static boolean valuesEqual(boolean left, boolean right) {
+    return left == right;
+  }
+
+  public @Nullable MethodHandle equalityCheck() {
+    return null;
+  }
+
+  // the hash of the field value if it's compared in place, reference fields are not part of the fingerprint
+  public int fingerprint(@NonNull Object instance) {
+    return 0;
+  }
+
+  // the given frame is a child of the path of the object holding the field, each plan moves it to its field name
+  public abstract void findChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath frame,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink);
+
+  public abstract boolean hasChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right);
+
+  // same as findChanges, but nested objects might get pushed onto the work stack of the traversal instead. returns
+  // true if the comparison was pushed and will complete later
+  public boolean pushChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath frame,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    this.findChanges(gulf, frame, left, right, sink);
+    return false;
+  }
+
+  // same as hasChanges, but returns null if the comparison was pushed onto the work stack of the traversal
+  public @Nullable Boolean pushHasChanges(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    return this.hasChanges(gulf, path, left, right);
+  }
+
+  // the estimated number of elements that must be compared for the field, used to decide if forking is worth it
+  public int estimateSize(@NonNull Object left, @NonNull Object right) {
+    return 0;
+  }
+
+  private static final class ObjectFieldDiffPlan extends FieldDiffPlan {
+
+    private final Type fieldType;
+    private final MethodHandle getter;
+
+    private final Object defaultValue;
+    private final DiffFinder<Object> diffFinder;
+
+    public ObjectFieldDiffPlan(
+      @NonNull String name,
+      @NonNull Type fieldType,
+      @NonNull MethodHandle getter,
+      @Nullable Object defaultValue,
+      @NonNull DiffFinder<Object> diffFinder
+    ) {
+      super(name);
+      this.fieldType = fieldType;
+      this.getter = getter;
+      this.defaultValue = defaultValue;
+      this.diffFinder = diffFinder;
+    }
+
+    @Override
+    public void findChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath frame,
+      @NonNull Object left,
+      @NonNull Object right,
+      @NonNull ChangeSink<Object> sink
+    ) {
+      Object leftValue = this.getFieldValue(left);
+      Object rightValue = this.getFieldValue(right);
+
+      // push the diff between both values (if any) directly into the sink
+      ObjectPath fieldPath = frame.moveFrame(this.name);
+      gulf.findChangesUsing(this.diffFinder, this.fieldType, fieldPath, leftValue, rightValue, sink);
+    }
+
+    @Override
+    public boolean hasChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Object left,
+      @NonNull Object right
+    ) {
+      Object leftValue = this.getFieldValue(left);
+      Object rightValue = this.getFieldValue(right);
+
+      // the path is not needed as no change is getting emitted, no need to append the field name to it
+      return gulf.hasChangesUsing(this.diffFinder, this.fieldType, path, leftValue, rightValue);
+    }
+
+    @Override
+    public boolean pushChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath frame,
+      @NonNull Object left,
+      @NonNull Object right,
+      @NonNull ChangeSink<Object> sink
+    ) {
+      Object leftValue = this.getFieldValue(left);
+      Object rightValue = this.getFieldValue(right);
+
+      ObjectPath fieldPath = frame.moveFrame(this.name);
+      return gulf.pushChanges(this.diffFinder, this.fieldType, fieldPath, leftValue, rightValue, sink);
+    }
+
+    @Override
+    public @Nullable Boolean pushHasChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Object left,
+      @NonNull Object right
+    ) {
+      Object leftValue = this.getFieldValue(left);
+      Object rightValue = this.getFieldValue(right);
+      return gulf.pushHasChanges(this.diffFinder, this.fieldType, path, leftValue, rightValue);
+    }
+
+    @Override
+    public int estimateSize(@NonNull Object left, @NonNull Object right) {
+      int leftSize = Internals.estimateSize(this.getFieldValue(left));
+      return Math.max(leftSize, Internals.estimateSize(this.getFieldValue(right)));
+    }
+
+    private @Nullable Object getFieldValue(@NonNull Object instance) {
+      try {
+        Object fieldValue = (Object) this.getter.invokeExact(instance);
+        return fieldValue != null ? fieldValue : this.defaultValue;
+      } catch (Throwable throwable) {
+        return this.defaultValue;
+      }
+    }
+  }
+
+  private static final class IntegralFieldDiffPlan extends FieldDiffPlan {
+
+    private final Class<?> primitiveType;
+    private final MethodHandle getter;
+
+    public IntegralFieldDiffPlan(@NonNull String name, @NonNull Class<?> primitiveType, @NonNull MethodHandle getter) {
+      super(name);
+      this.primitiveType = primitiveType;
+      this.getter = getter;
+    }
+
+    @Override
+    public @NonNull MethodHandle equalityCheck() {
+      return MethodHandles.filterArguments(LONG_EQUALS, 0, this.getter, this.getter);
+    }
+
+    @Override
+    public int fingerprint(@NonNull Object instance) {
+      try {
+        return Long.hashCode((long) this.getter.invokeExact(instance));
+      } catch (Throwable throwable) {
+        return 0;
+      }
+    }
+
+    @Override
+    public void findChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath frame,
+      @NonNull Object left,
+      @NonNull Object right,
+      @NonNull ChangeSink<Object> sink
+    ) {
+      long leftValue;
+      long rightValue;
+      try {
+        leftValue = (long) this.getter.invokeExact(left);
+        rightValue = (long) this.getter.invokeExact(right);
+      } catch (Throwable throwable) {
+        return;
+      }
+
+      // only the reads are guarded, exceptions of the sink are passed to the caller
+      if (leftValue != rightValue) {
+        // only box the values if there actually is a change
+        Change<Object> change = new Change<>(frame.moveFrame(this.name), this.box(leftValue), this.box(rightValue));
+        sink.accept(change);
+      }
+    }
+
+    @Override
+    public boolean hasChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Object left,
+      @NonNull Object right
+    ) {
+      try {
+        return (long) this.getter.invokeExact(left) != (long) this.getter.invokeExact(right);
+      } catch (Throwable throwable) {
+        return false;
+      }
+    }
+
+    private @NonNull Object box(long value) {
+      if (this.primitiveType == int.class) {
+        return (int) value;
+      } else if (this.primitiveType == long.class) {
+        return value;
+      } else if (this.primitiveType == char.class) {
+        return (char) value;
+      } else if (this.primitiveType == short.class) {
+        return (short) value;
+      } else {
+        return (byte) value;
+      }
+    }
+  }
+
+  private static final class FloatingFieldDiffPlan extends FieldDiffPlan {
+
+    private final Class<?> primitiveType;
+    private final MethodHandle getter;
+
+    public FloatingFieldDiffPlan(@NonNull String name, @NonNull Class<?> primitiveType, @NonNull MethodHandle getter) {
+      super(name);
+      this.primitiveType = primitiveType;
+      this.getter = getter;
+    }
+
+    @Override
+    public @NonNull MethodHandle equalityCheck() {
+      return MethodHandles.filterArguments(DOUBLE_EQUALS, 0, this.getter, this.getter);
+    }
+
+    @Override
+    public int fingerprint(@NonNull Object instance) {
+      try {
+        // consistent with Double.compare: all nan values have the same hash, positive and negative zero are different
+        return Double.hashCode((double) this.getter.invokeExact(instance));
+      } catch (Throwable throwable) {
+        return 0;
+      }
+    }
+
+    @Override
+    public void findChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath frame,
+      @NonNull Object left,
+      @NonNull Object right,
+      @NonNull ChangeSink<Object> sink
+    ) {
+      // float values are widened to double which is exact, so comparing them as double is fine
+      double leftValue;
+      double rightValue;
+      try {
+        leftValue = (double) this.getter.invokeExact(left);
+        rightValue = (double) this.getter.invokeExact(right);
+      } catch (Throwable throwable) {
+        return;
+      }
+
+      if (Double.compare(leftValue, rightValue) != 0) {
+        // only box the values if there actually is a change
+        Change<Object> change = new Change<>(frame.moveFrame(this.name), this.box(leftValue), this.box(rightValue));
+        sink.accept(change);
+      }
+    }
+
+    @Override
+    public boolean hasChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Object left,
+      @NonNull Object right
+    ) {
+      try {
+        return Double.compare((double) this.getter.invokeExact(left), (double) this.getter.invokeExact(right)) != 0;
+      } catch (Throwable throwable) {
+        return false;
+      }
+    }
+
+    private @NonNull Object box(double value) {
+      return this.primitiveType == float.class ? (Object) (float) value : (Object) value;
+    }
+  }
+
+  private static final class BooleanFieldDiffPlan extends FieldDiffPlan {
+
+    private final MethodHandle getter;
+
+    public BooleanFieldDiffPlan(@NonNull String name, @NonNull MethodHandle getter) {
+      super(name);
+      this.getter = getter;
+    }
+
+    @Override
+    public @NonNull MethodHandle equalityCheck() {
+      return MethodHandles.filterArguments(BOOLEAN_EQUALS, 0, this.getter, this.getter);
+    }
+
+    @Override
+    public int fingerprint(@NonNull Object instance) {
+      try {
+        return Boolean.hashCode((boolean) this.getter.invokeExact(instance));
+      } catch (Throwable throwable) {
+        return 0;
+      }
+    }
+
+    @Override
+    public void findChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath frame,
+      @NonNull Object left,
+      @NonNull Object right,
+      @NonNull ChangeSink<Object> sink
+    ) {
+      boolean leftValue;
+      boolean rightValue;
+      try {
+        leftValue = (boolean) this.getter.invokeExact(left);
+        rightValue = (boolean) this.getter.invokeExact(right);
+      } catch (Throwable throwable) {
+        return;
+      }
+
+      if (leftValue != rightValue) {
+        Change<Object> change = new Change<>(frame.moveFrame(this.name), leftValue, rightValue);
+        sink.accept(change);
+      }
+    }
+
+    @Override
+    public boolean hasChanges(
+      @NonNull Gulf gulf,
+      @NonNull ObjectPath path,
+      @NonNull Object left,
+      @NonNull Object right
+    ) {
+      try {
+        return (boolean) this.getter.invokeExact(left) != (boolean) this.getter.invokeExact(right);
+      } catch (Throwable throwable) {
+        return false;
+      }
+    }
+  }
+}
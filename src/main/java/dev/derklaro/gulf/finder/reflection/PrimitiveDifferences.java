@@ -22,25 +22,20 @@
  * THE SOFTWARE.
  */
 
-package dev.derklaro.gulf.path;
+package dev.derklaro.gulf.finder.reflection;
 
+import java.lang.invoke.MethodHandle;
 import lombok.NonNull;
-import org.jetbrains.annotations.Contract;
 
-final class ObjectPathUtil {
+// java 8 fallback, replaced by the hidden class variant from the java21 source set on newer jvms (multi-release jar)
+final class PrimitiveDifferences {
 
-  private ObjectPathUtil() {
+  private PrimitiveDifferences() {
     throw new UnsupportedOperationException();
   }
 
-  @Contract(pure = true)
-  public static @NonNull String[] addElement(@NonNull String[] elements, @NonNull String element) {
-    int elementCount = elements.length;
-    // expand the array
-    String[] target = new String[elementCount + 1];
-    System.arraycopy(elements, 0, target, 0, elementCount);
-    // add the new element and return it
-    target[elementCount] = element;
-    return target;
+  // the handle is invoked from a captured field, which the jit can't treat as a constant
+  public static @NonNull PrimitiveDifference define(@NonNull MethodHandle firstDifference) {
+    return (left, right) -> (int) firstDifference.invokeExact(left, right);
   }
 }
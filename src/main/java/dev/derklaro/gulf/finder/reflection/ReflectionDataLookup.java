@@ -75,7 +75,12 @@ private ReflectionDataLookup() {
     }
 
     try {
-      return lookup.unreflectGetter(field).asType(GETTER_GENERIC_TYPE);
+      // primitive getters keep their exact return type to prevent boxing of the field values
+      MethodHandle getter = lookup.unreflectGetter(field);
+      Class<?> fieldType = field.getType();
+      return fieldType.isPrimitive()
+        ? getter.asType(MethodType.methodType(fieldType, Object.class))
+        : getter.asType(GETTER_GENERIC_TYPE);
     } catch (Exception exception) {
       return null;
     }
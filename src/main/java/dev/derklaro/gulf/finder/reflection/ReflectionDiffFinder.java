@@ -25,77 +25,83 @@
 package dev.derklaro.gulf.finder.reflection;
 
 import dev.derklaro.gulf.Gulf;
-import dev.derklaro.gulf.diff.Change;
-import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.finder.DiffFrame;
+import dev.derklaro.gulf.finder.FingerprintingDiffFinder;
+import dev.derklaro.gulf.finder.IterativeDiffFinder;
+import dev.derklaro.gulf.finder.StreamingDiffFinder;
 import dev.derklaro.gulf.path.ObjectPath;
-import java.lang.invoke.MethodHandle;
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import lombok.NonNull;
-import org.jetbrains.annotations.Nullable;
 
-public final class ReflectionDiffFinder implements DiffFinder<Object> {
+public final class ReflectionDiffFinder implements StreamingDiffFinder<Object>, IterativeDiffFinder, FingerprintingDiffFinder {
 
-  private final Map<Class<?>, Collection<Map.Entry<Field, MethodHandle>>> reflectionCache = new ConcurrentHashMap<>();
+  @Override
+  public void findChangesNullSafe(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    // compare both types based on the compiled plan of the class
+    ClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    plan.findChanges(gulf, path, left, right, sink);
+  }
 
   @Override
-  public @NonNull Collection<Change<Object>> findChangesNullSafe(
+  public boolean hasChangesNullSafe(
     @NonNull Gulf gulf,
     @NonNull ObjectPath path,
     @NonNull Type fullType,
     @NonNull Object left,
     @NonNull Object right
   ) {
-    Collection<Map.Entry<Field, MethodHandle>> reflectionData = this.reflectionCache.computeIfAbsent(
-      left.getClass(),
-      clazz -> ReflectionDataLookup.findFields(clazz, gulf.lookupPerType()));
-
-    // compare both types based on the reflection data
-    Collection<Change<Object>> changes = new ArrayList<>();
-    for (Map.Entry<Field, MethodHandle> entry : reflectionData) {
-      // get the field info
-      Field field = entry.getKey();
-      Type fieldType = field.getGenericType();
-
-      // get both field values
-      Object leftValue = this.getFieldValue(left, entry.getValue());
-      Object rightValue = this.getFieldValue(right, entry.getValue());
-
-      // get the defaulted field value
-      Object normLeft = this.getDefaultFieldValue(gulf, fieldType, leftValue);
-      Object normRight = this.getDefaultFieldValue(gulf, fieldType, rightValue);
-
-      // get the diff between both objects (if any)
-      ObjectPath fieldPath = path.append(field.getName());
-      Collection<Change<Object>> detectedChanges = gulf.findChanges(fieldType, fieldPath, normLeft, normRight);
+    // compare both types based on the compiled plan of the class, stop at the first change
+    ClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    return plan.hasChanges(gulf, path, left, right);
+  }
 
-      // add all changes
-      changes.addAll(detectedChanges);
-    }
+  @Override
+  public @NonNull DiffFrame findChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right,
+    @NonNull ChangeSink<Object> sink
+  ) {
+    ClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    return plan.findChangesFrame(gulf, path, left, right, sink);
+  }
 
-    // return all changes
-    return changes;
+  @Override
+  public @NonNull DiffFrame hasChangesFrame(
+    @NonNull Gulf gulf,
+    @NonNull ObjectPath path,
+    @NonNull Type fullType,
+    @NonNull Object left,
+    @NonNull Object right
+  ) {
+    ClassDiffPlan plan = this.getDiffPlan(gulf, left.getClass());
+    return plan.hasChangesFrame(gulf, path, left, right);
   }
 
-  private @Nullable Object getFieldValue(@NonNull Object instance, @NonNull MethodHandle fieldAccessor) {
-    try {
-      return fieldAccessor.invoke(instance);
-    } catch (Throwable throwable) {
-      return null;
-    }
+  @Override
+  public int fingerprint(@NonNull Gulf gulf, @NonNull Object value) {
+    ClassDiffPlan plan = this.getDiffPlan(gulf, value.getClass());
+    return plan.fingerprint(value);
   }
 
-  private @Nullable Object getDefaultFieldValue(@NonNull Gulf gulf, @NonNull Type type, @Nullable Object fieldValue) {
-    if (fieldValue != null) {
-      // field value already known, nothing to do
-      return fieldValue;
-    } else {
-      // get the default supplier for the field type
-      return gulf.getDefaultInstance(type);
+  private @NonNull ClassDiffPlan getDiffPlan(@NonNull Gulf gulf, @NonNull Class<?> clazz) {
+    // the plan contains resolved information of the gulf instance, so the plans are cached per instance
+    Map<Class<?>, ClassDiffPlan> planCache = gulf.planCache(this);
+    ClassDiffPlan plan = planCache.get(clazz);
+    if (plan == null) {
+      plan = planCache.computeIfAbsent(clazz, type -> ClassDiffPlan.compile(gulf, type));
     }
+    return plan;
   }
 }
@@ -24,9 +24,15 @@
 
 package dev.derklaro.gulf.internal;
 
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.GeneratedDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.lang.reflect.Array;
 import java.util.AbstractMap;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
 import lombok.NonNull;
 import org.jetbrains.annotations.ApiStatus;
@@ -35,6 +41,17 @@
 @ApiStatus.Internal
 public final class Internals {
 
+  // the diff finders of this library and generated ones only use a path during the call, so they can receive path
+  // frames which are moved to the next field or element once the call returns, see ObjectPath#newFrame
+  private static final String FINDER_PACKAGE = "dev.derklaro.gulf.finder.";
+  private static final ClassValue<Boolean> FRAME_AWARE = new ClassValue<Boolean>() {
+    @Override
+    protected @NonNull Boolean computeValue(@NonNull Class<?> type) {
+      return GeneratedDiffFinder.class.isAssignableFrom(type)
+        || (type.getName().startsWith(FINDER_PACKAGE) && type.getClassLoader() == Internals.class.getClassLoader());
+    }
+  };
+
   private Internals() {
     throw new UnsupportedOperationException();
   }
@@ -55,4 +72,36 @@ private Internals() {
     // use the type of the left or right object depending on which one is present
     return left != null ? left.getClass() : right.getClass();
   }
+
+  public static @NonNull ObjectPath pathFor(@NonNull DiffFinder<?> diffFinder, @NonNull ObjectPath path) {
+    // all other diff finders get an immutable path, they might keep it after the call
+    return path.frame() && !FRAME_AWARE.get(diffFinder.getClass()) ? path.reify() : path;
+  }
+
+  public static @NonNull RuntimeException propagate(@NonNull CompletionException exception) {
+    // rethrow the exception of the asynchronous task as if it ran on the calling thread
+    Throwable cause = exception.getCause();
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    } else {
+      return exception;
+    }
+  }
+
+  public static int estimateSize(@Nullable Object value) {
+    // the number of elements for containers, other objects are counted as a single element
+    if (value == null) {
+      return 0;
+    } else if (value instanceof Collection<?>) {
+      return ((Collection<?>) value).size();
+    } else if (value instanceof Map<?, ?>) {
+      return ((Map<?, ?>) value).size();
+    } else if (value.getClass().isArray()) {
+      return Array.getLength(value);
+    } else {
+      return 1;
+    }
+  }
 }
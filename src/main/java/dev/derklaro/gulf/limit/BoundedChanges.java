@@ -0,0 +1,90 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.limit;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.util.Collection;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class BoundedChanges {
+
+  private final Collection<Change<Object>> changes;
+
+  private final LimitKind limitReached;
+  private final ObjectPath limitPath;
+
+  private final int emittedChanges;
+  private final int visitedNodes;
+  private final int skippedComparisons;
+
+  public BoundedChanges(
+    @NonNull Collection<Change<Object>> changes,
+    @Nullable LimitKind limitReached,
+    @Nullable ObjectPath limitPath,
+    int emittedChanges,
+    int visitedNodes,
+    int skippedComparisons
+  ) {
+    this.changes = changes;
+    this.limitReached = limitReached;
+    this.limitPath = limitPath;
+    this.emittedChanges = emittedChanges;
+    this.visitedNodes = visitedNodes;
+    this.skippedComparisons = skippedComparisons;
+  }
+
+  public @NonNull Collection<Change<Object>> changes() {
+    return this.changes;
+  }
+
+  public boolean truncated() {
+    return this.limitReached != null;
+  }
+
+  // the first limit that was reached and the path of the comparison at which it was reached
+  public @Nullable LimitKind limitReached() {
+    return this.limitReached;
+  }
+
+  public @Nullable ObjectPath limitPath() {
+    return this.limitPath;
+  }
+
+  // all changes that were created, including the ones nested in other changes
+  public int emittedChanges() {
+    return this.emittedChanges;
+  }
+
+  public int visitedNodes() {
+    return this.visitedNodes;
+  }
+
+  // the comparisons that were not started because a limit was reached
+  public int skippedComparisons() {
+    return this.skippedComparisons;
+  }
+}
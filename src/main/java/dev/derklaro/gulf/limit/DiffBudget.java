@@ -0,0 +1,159 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.limit;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.ChangeSink;
+import dev.derklaro.gulf.path.ObjectPath;
+import java.util.Collection;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+
+// the limit state of a bounded call, referenced by all paths of the call. calls with a budget are never forked, so
+// the state is only accessed by a single thread
+@ApiStatus.Internal
+public final class DiffBudget {
+
+  private final DiffLimits limits;
+
+  private int changes;
+  private int visitedNodes;
+  private int skippedComparisons;
+
+  // set once no more comparisons are started, the first limit that was reached is kept for the summary
+  private boolean exhausted;
+  private LimitKind limitReached;
+  private ObjectPath limitPath;
+
+  public DiffBudget(@NonNull DiffLimits limits) {
+    this.limits = limits;
+  }
+
+  public static boolean exhausted(@NonNull ObjectPath path) {
+    DiffBudget budget = path.budget();
+    return budget != null && budget.exhausted;
+  }
+
+  // returns false if the comparison at the given path must be skipped
+  public boolean enter(@NonNull ObjectPath path) {
+    if (this.exhausted) {
+      this.skippedComparisons++;
+      return false;
+    }
+
+    // only the subtree is skipped if it's too deep, other subtrees are still compared
+    if (path.depth() > this.limits.maxDepth()) {
+      this.skippedComparisons++;
+      this.limitReached(LimitKind.DEPTH, path);
+      return false;
+    }
+
+    if (this.visitedNodes >= this.limits.maxVisitedNodes()) {
+      this.skippedComparisons++;
+      this.exhausted = true;
+      this.limitReached(LimitKind.VISITED_NODES, path);
+      return false;
+    }
+
+    this.visitedNodes++;
+    return true;
+  }
+
+  // counts a change that is reported directly by a diff finder, returns false if the change must be dropped as the
+  // limits were already reached
+  public static boolean reportChange(@NonNull ObjectPath path) {
+    DiffBudget budget = path.budget();
+    return budget == null || budget.changeFound(path);
+  }
+
+  // wraps the sink of a comparison to count the changes which are pushed into it
+  public @NonNull ChangeSink<Object> countChanges(@NonNull ChangeSink<Object> sink) {
+    return new CountingSink(this, sink);
+  }
+
+  private boolean changeFound(@NonNull ObjectPath path) {
+    if (this.exhausted) {
+      return false;
+    }
+
+    // no change can be reported if the limit is zero
+    if (this.changes >= this.limits.maxChanges()) {
+      this.exhausted = true;
+      this.limitReached(LimitKind.CHANGES, path);
+      return false;
+    }
+
+    this.changes++;
+    if (this.changes == this.limits.maxChanges()) {
+      this.exhausted = true;
+      this.limitReached(LimitKind.CHANGES, path);
+    }
+    return true;
+  }
+
+  public @NonNull BoundedChanges complete(@NonNull Collection<Change<Object>> changes) {
+    return new BoundedChanges(
+      changes,
+      this.limitReached,
+      this.limitPath,
+      this.changes,
+      this.visitedNodes,
+      this.skippedComparisons);
+  }
+
+  private void limitReached(@NonNull LimitKind kind, @NonNull ObjectPath path) {
+    if (this.limitReached == null) {
+      this.limitReached = kind;
+      this.limitPath = path.reify();
+    }
+  }
+
+  // a change which arrives after nested changes were counted only wraps these changes (for example the change of a
+  // collection wrapping the changes of its elements) and is passed through without being counted again. all other
+  // changes are counted and dropped once the limit was reached
+  private static final class CountingSink implements ChangeSink<Object> {
+
+    private final DiffBudget budget;
+    private final ChangeSink<Object> delegate;
+
+    private int countedChanges;
+
+    public CountingSink(@NonNull DiffBudget budget, @NonNull ChangeSink<Object> delegate) {
+      this.budget = budget;
+      this.delegate = delegate;
+      this.countedChanges = budget.changes;
+    }
+
+    @Override
+    public void accept(@NonNull Change<Object> change) {
+      if (this.countedChanges == this.budget.changes && !this.budget.changeFound(change.path())) {
+        return;
+      }
+
+      this.countedChanges = this.budget.changes;
+      this.delegate.accept(change);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.limit;
+
+import lombok.NonNull;
+
+public final class DiffLimits {
+
+  private static final DiffLimits UNLIMITED = new DiffLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+  private final int maxChanges;
+  private final int maxDepth;
+  private final int maxVisitedNodes;
+
+  private DiffLimits(int maxChanges, int maxDepth, int maxVisitedNodes) {
+    this.maxChanges = maxChanges;
+    this.maxDepth = maxDepth;
+    this.maxVisitedNodes = maxVisitedNodes;
+  }
+
+  public static @NonNull DiffLimits unlimited() {
+    return UNLIMITED;
+  }
+
+  private static int checkLimit(@NonNull String name, int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException(name + " must not be negative, got " + limit);
+    }
+    return limit;
+  }
+
+  public @NonNull DiffLimits withMaxChanges(int maxChanges) {
+    return new DiffLimits(checkLimit("Max changes", maxChanges), this.maxDepth, this.maxVisitedNodes);
+  }
+
+  public @NonNull DiffLimits withMaxDepth(int maxDepth) {
+    return new DiffLimits(this.maxChanges, checkLimit("Max depth", maxDepth), this.maxVisitedNodes);
+  }
+
+  public @NonNull DiffLimits withMaxVisitedNodes(int maxVisitedNodes) {
+    return new DiffLimits(this.maxChanges, this.maxDepth, checkLimit("Max visited nodes", maxVisitedNodes));
+  }
+
+  public int maxChanges() {
+    return this.maxChanges;
+  }
+
+  // the depth of the paths that are compared, the compared root objects have a depth of 0
+  public int maxDepth() {
+    return this.maxDepth;
+  }
+
+  public int maxVisitedNodes() {
+    return this.maxVisitedNodes;
+  }
+}
@@ -28,19 +28,21 @@
 
 public final class DefaultPathFactory implements ObjectPathFactory {
 
-  private static final String[] EMPTY_ELEMENTS = new String[0];
-
   private final String rootIndicator;
   private final String pathDelimiter;
 
+  // paths are immutable, all paths can share the same root
+  private final ObjectPath rootPath;
+
   public DefaultPathFactory(@NonNull String rootIndicator, @NonNull String pathDelimiter) {
     this.rootIndicator = rootIndicator;
     this.pathDelimiter = pathDelimiter;
+    this.rootPath = new ObjectPath(rootIndicator, this);
   }
 
   @Override
   public @NonNull ObjectPath beginPath() {
-    return new ObjectPath(EMPTY_ELEMENTS, this.rootIndicator, this);
+    return this.rootPath;
   }
 
   @Override
@@ -24,42 +24,287 @@
 
 package dev.derklaro.gulf.path;
 
+import dev.derklaro.gulf.TraversalState;
 import dev.derklaro.gulf.collection.ImmutableArrayList;
-import java.util.Arrays;
+import dev.derklaro.gulf.limit.DiffBudget;
 import java.util.Collection;
+import java.util.Objects;
 import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 public final class ObjectPath {
 
-  private final String[] elements;
-  private final String currentSegment;
+  private static final String[] EMPTY_ELEMENTS = new String[0];
+
+  private final ObjectPath parent;
   private final ObjectPathFactory factory;
+  // the state of the call that compares the objects along this path, null if no call began on this path yet
+  private final TraversalState traversalState;
 
-  public ObjectPath(@NonNull String[] elements, @NonNull String currentSegment, @NonNull ObjectPathFactory factory) {
-    this.elements = elements;
-    this.currentSegment = currentSegment;
+  // the amount of elements in this path (the root segment is not an element)
+  private final int depth;
+  // frames are mutable paths which are reused while walking over the fields of an object, see newFrame
+  private final boolean frame;
+
+  // only re-assigned for frames. the string segment of index and key segments is rendered lazily
+  private PathSegmentType segmentType;
+  private String currentSegment;
+  private int index;
+  private Object key;
+
+  private int hash;
+  private String fullPath;
+
+  public ObjectPath(@NonNull String rootSegment, @NonNull ObjectPathFactory factory) {
+    this(rootSegment, factory, null);
+  }
+
+  private ObjectPath(
+    @NonNull String rootSegment,
+    @NonNull ObjectPathFactory factory,
+    @Nullable TraversalState traversalState
+  ) {
+    this.parent = null;
     this.factory = factory;
+    this.traversalState = traversalState;
+    this.depth = 0;
+    this.frame = false;
+    this.segmentType = PathSegmentType.ROOT;
+    this.currentSegment = rootSegment;
+    this.hash = 1;
+  }
+
+  private ObjectPath(
+    @NonNull ObjectPath parent,
+    @Nullable TraversalState traversalState,
+    boolean frame,
+    @NonNull PathSegmentType segmentType,
+    @Nullable String currentSegment,
+    int index,
+    @Nullable Object key
+  ) {
+    this.parent = parent;
+    this.factory = parent.factory;
+    this.traversalState = traversalState;
+    this.depth = parent.depth + 1;
+    this.frame = frame;
+    this.setSegment(segmentType, currentSegment, index, key);
   }
 
   @Unmodifiable
   public @NonNull Collection<String> elements() {
-    return ImmutableArrayList.fromArray(this.elements);
+    return ImmutableArrayList.fromArray(this.materializeElements());
+  }
+
+  public @NonNull PathSegmentType segmentType() {
+    return this.segmentType;
   }
 
   public @NonNull String currentSegment() {
-    return this.currentSegment;
+    String currentSegment = this.currentSegment;
+    if (currentSegment == null) {
+      currentSegment = this.segmentType == PathSegmentType.INDEX
+        ? Integer.toString(this.index)
+        : String.valueOf(this.key);
+      this.currentSegment = currentSegment;
+    }
+    return currentSegment;
+  }
+
+  public int index() {
+    if (this.segmentType != PathSegmentType.INDEX) {
+      throw new IllegalStateException("Path segment " + this.currentSegment() + " is not an index segment");
+    }
+    return this.index;
+  }
+
+  public @Nullable Object key() {
+    if (this.segmentType != PathSegmentType.KEY) {
+      throw new IllegalStateException("Path segment " + this.currentSegment() + " is not a key segment");
+    }
+    return this.key;
+  }
+
+  public @Nullable ObjectPath parent() {
+    return this.parent;
+  }
+
+  public int depth() {
+    return this.depth;
+  }
+
+  public boolean frame() {
+    return this.frame;
+  }
+
+  // the limit state of the bounded call that compares the objects along this path, null once the call completed
+  @ApiStatus.Internal
+  public @Nullable DiffBudget budget() {
+    TraversalState traversalState = this.traversalState;
+    return traversalState == null ? null : traversalState.budget();
+  }
+
+  @ApiStatus.Internal
+  public @Nullable TraversalState traversalState() {
+    return this.traversalState;
+  }
+
+  // the same path, but bound to the given state. used when a call begins and for the branches of a parallel call
+  @ApiStatus.Internal
+  public @NonNull ObjectPath withTraversalState(@NonNull TraversalState traversalState) {
+    if (this.parent == null) {
+      return new ObjectPath(this.currentSegment, this.factory, traversalState);
+    } else {
+      return new ObjectPath(this.parent, traversalState, false, this.segmentType, this.currentSegment, this.index, this.key);
+    }
   }
 
   @Contract(pure = true)
   public @NonNull ObjectPath append(@NonNull String element) {
-    String[] newElements = ObjectPathUtil.addElement(this.elements, element);
-    return new ObjectPath(newElements, element, this.factory);
+    return new ObjectPath(this.reify(), this.traversalState, false, PathSegmentType.FIELD, element, 0, null);
+  }
+
+  @Contract(pure = true)
+  public @NonNull ObjectPath appendIndex(int index) {
+    return new ObjectPath(this.reify(), this.traversalState, false, PathSegmentType.INDEX, null, index, null);
+  }
+
+  @Contract(pure = true)
+  public @NonNull ObjectPath appendKey(@Nullable Object key) {
+    return new ObjectPath(this.reify(), this.traversalState, false, PathSegmentType.KEY, null, 0, key);
+  }
+
+  // a mutable child path that is moved to each field, index or key of an object instead of allocating one path per
+  // segment. frames are only valid until the next move, so only the diff finders of this library receive them
+  @ApiStatus.Internal
+  public @NonNull ObjectPath newFrame() {
+    return new ObjectPath(this.reify(), this.traversalState, true, PathSegmentType.FIELD, "", 0, null);
+  }
+
+  @ApiStatus.Internal
+  public @NonNull ObjectPath moveFrame(@NonNull String segment) {
+    return this.moveFrame(PathSegmentType.FIELD, segment, 0, null);
+  }
+
+  @ApiStatus.Internal
+  public @NonNull ObjectPath moveFrameToIndex(int index) {
+    return this.moveFrame(PathSegmentType.INDEX, null, index, null);
+  }
+
+  @ApiStatus.Internal
+  public @NonNull ObjectPath moveFrameToKey(@Nullable Object key) {
+    return this.moveFrame(PathSegmentType.KEY, null, 0, key);
+  }
+
+  private @NonNull ObjectPath moveFrame(
+    @NonNull PathSegmentType segmentType,
+    @Nullable String currentSegment,
+    int index,
+    @Nullable Object key
+  ) {
+    if (!this.frame) {
+      throw new IllegalStateException("Only frames can be moved");
+    }
+
+    // the parent path is immutable, so only the last segment changes
+    this.setSegment(segmentType, currentSegment, index, key);
+    this.fullPath = null;
+    return this;
+  }
+
+  private void setSegment(
+    @NonNull PathSegmentType segmentType,
+    @Nullable String currentSegment,
+    int index,
+    @Nullable Object key
+  ) {
+    this.segmentType = segmentType;
+    this.currentSegment = currentSegment;
+    this.index = index;
+    this.key = key;
+
+    // for field segments this is the same hash as Arrays.hashCode(elements) would produce
+    int segmentHash;
+    if (segmentType == PathSegmentType.INDEX) {
+      segmentHash = index;
+    } else if (segmentType == PathSegmentType.KEY) {
+      segmentHash = Objects.hashCode(key);
+    } else {
+      segmentHash = currentSegment.hashCode();
+    }
+    this.hash = 31 * this.parent.hash + segmentHash;
+  }
+
+  @Contract(pure = true)
+  public @NonNull ObjectPath reify() {
+    if (this.frame) {
+      return new ObjectPath(this.parent, this.traversalState, false, this.segmentType, this.currentSegment, this.index, this.key);
+    } else {
+      return this;
+    }
   }
 
   public @NonNull String toFullPath() {
-    return this.factory.joinPathElements(this.elements);
+    String fullPath = this.fullPath;
+    if (fullPath == null) {
+      fullPath = this.factory.joinPathElements(this.materializeElements());
+      this.fullPath = fullPath;
+    }
+    return fullPath;
+  }
+
+  public @NonNull String toJsonPointer() {
+    if (this.depth == 0) {
+      return "";
+    }
+
+    // see RFC 6901: each segment is prefixed with a slash, ~ and / in segments are escaped as ~0 and ~1
+    StringBuilder pointer = new StringBuilder();
+    for (String element : this.materializeElements()) {
+      pointer.append('/');
+      for (int i = 0; i < element.length(); i++) {
+        char c = element.charAt(i);
+        if (c == '~') {
+          pointer.append("~0");
+        } else if (c == '/') {
+          pointer.append("~1");
+        } else {
+          pointer.append(c);
+        }
+      }
+    }
+    return pointer.toString();
+  }
+
+  private @NonNull String[] materializeElements() {
+    if (this.depth == 0) {
+      return EMPTY_ELEMENTS;
+    }
+
+    // walk up to the root and fill the elements from the back
+    String[] elements = new String[this.depth];
+    for (ObjectPath current = this; current.parent != null; current = current.parent) {
+      elements[current.depth - 1] = current.currentSegment();
+    }
+    return elements;
+  }
+
+  private boolean segmentEquals(@NonNull ObjectPath other) {
+    if (this.segmentType != other.segmentType) {
+      return false;
+    }
+
+    switch (this.segmentType) {
+      case INDEX:
+        return this.index == other.index;
+      case KEY:
+        return Objects.equals(this.key, other.key);
+      default:
+        return this.currentSegment.equals(other.currentSegment);
+    }
   }
 
   @Override
@@ -69,6 +314,33 @@ public ObjectPath(@NonNull String[] elements, @NonNull String currentSegment, @N
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(this.elements);
+    return this.hash;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ObjectPath)) {
+      return false;
+    }
+
+    ObjectPath other = (ObjectPath) obj;
+    if (this.depth != other.depth || this.hash != other.hash) {
+      return false;
+    }
+
+    // both paths have the same depth, compare the segments from the back until a shared parent is reached
+    ObjectPath left = this;
+    ObjectPath right = other;
+    while (left != right && left.parent != null) {
+      if (!left.segmentEquals(right)) {
+        return false;
+      }
+      left = left.parent;
+      right = right.parent;
+    }
+    return true;
   }
 }
@@ -0,0 +1,66 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.finder.reflection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// java 21+ variant of the class, packaged into META-INF/versions/21 of the multi-release jar. each handle is stored
+// in a static final field of its own hidden class, so the jit treats it as a constant and inlines the whole chain
+final class PrimitiveDifferences {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class);
+  private static final byte[] HOLDER_BYTES = readHolderBytes();
+
+  private PrimitiveDifferences() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static PrimitiveDifference define(MethodHandle firstDifference) {
+    if (HOLDER_BYTES != null) {
+      try {
+        // the hidden class is not strongly linked to the class loader, it's unloaded with the plan that uses it
+        MethodHandles.Lookup holder = LOOKUP.defineHiddenClassWithClassData(HOLDER_BYTES, firstDifference, true);
+        return (PrimitiveDifference) holder.findConstructor(holder.lookupClass(), CONSTRUCTOR_TYPE).invoke();
+      } catch (Throwable ignored) {
+      }
+    }
+
+    // the holder template is missing, for example if the jar was repackaged
+    return (left, right) -> (int) firstDifference.invokeExact(left, right);
+  }
+
+  private static byte[] readHolderBytes() {
+    try (InputStream stream = PrimitiveDifferences.class.getResourceAsStream("PrimitiveDifferenceHolder.class")) {
+      return stream == null ? null : stream.readAllBytes();
+    } catch (IOException exception) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.internal;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import org.jetbrains.annotations.ApiStatus;
+
+// java 21+ variant of the class, packaged into META-INF/versions/21 of the multi-release jar. each pair is compared
+// on its own virtual thread, which are scheduled onto a carrier pool that is bounded to the number of cores
+@ApiStatus.Internal
+public final class BatchExecutors {
+
+  private static final Executor DEFAULT_EXECUTOR = Executors.newThreadPerTaskExecutor(
+    Thread.ofVirtual().name("gulf-batch-", 0).factory());
+
+  private BatchExecutors() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static Executor defaultExecutor() {
+    return DEFAULT_EXECUTOR;
+  }
+}
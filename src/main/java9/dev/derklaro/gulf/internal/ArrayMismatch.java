@@ -0,0 +1,71 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.internal;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.ApiStatus;
+
+// java 9+ variant of the class, packaged into META-INF/versions/9 of the multi-release jar. Arrays.mismatch
+// is an intrinsic which compares the arrays in vectorized chunks
+@ApiStatus.Internal
+public final class ArrayMismatch {
+
+  private ArrayMismatch() {
+    throw new UnsupportedOperationException();
+  }
+
+  // returns the index of the first mismatch relative to from, or -1 if the given ranges are equal
+  public static int mismatch(boolean[] left, boolean[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(byte[] left, byte[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(char[] left, char[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(short[] left, short[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(int[] left, int[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(long[] left, long[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(float[] left, float[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+
+  public static int mismatch(double[] left, double[] right, int from, int length) {
+    return Arrays.mismatch(left, from, from + length, right, from, from + length);
+  }
+}
@@ -28,6 +28,8 @@
 import dev.derklaro.gulf.diff.array.ArrayChange;
 import dev.derklaro.gulf.diff.array.ArrayElementAddOrRemove;
 import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
 import dev.derklaro.gulf.diff.array.IndexedChange;
 import java.util.Collection;
 import org.junit.jupiter.api.Assertions;
@@ -136,4 +138,23 @@ void testElementChange() {
     Assertions.assertEquals("!", diff.leftElement());
     Assertions.assertEquals(":)", diff.rightElement());
   }
+
+  @Test
+  void testIndexRangeChanges() {
+    Gulf gulf = Gulf.builder().withIndexRangeChanges().build();
+
+    String[] left = new String[0];
+    String[] right = new String[]{"Hello", "World", "!"};
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    ArrayChange<Object> arr = Assertions.assertInstanceOf(ArrayChange.class, changes.iterator().next());
+    Assertions.assertEquals(1, arr.elementChanges().size());
+
+    IndexRangeChange<Object> added = Assertions.assertInstanceOf(IndexRangeChange.class, arr.elementChanges().iterator().next());
+    Assertions.assertEquals(IndexRangeKind.ADDED, added.kind());
+    Assertions.assertEquals(0, added.fromIndex());
+    Assertions.assertEquals(3, added.toIndex());
+  }
 }
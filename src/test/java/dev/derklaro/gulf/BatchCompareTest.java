@@ -0,0 +1,113 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.seed.SeedE;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class BatchCompareTest {
+
+  private static List<ObjectPair> buildPairs() {
+    List<ObjectPair> pairs = new ArrayList<>();
+    for (int idx = 0; idx < 500; idx++) {
+      SeedE left = new SeedE("node-" + idx).withChildren(new SeedE("child"), null);
+      SeedE right = new SeedE(idx % 3 == 0 ? "changed-" + idx : "node-" + idx).withChildren(new SeedE("child"), null);
+      pairs.add(ObjectPair.of(left, right));
+    }
+    return pairs;
+  }
+
+  @Test
+  void testBatchResultsInPairOrder() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    List<ObjectPair> pairs = buildPairs();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Collection<Change<Object>>> results = gulf.findChangesBatch(pairs, executor);
+      Assertions.assertEquals(pairs.size(), results.size());
+      for (int idx = 0; idx < pairs.size(); idx++) {
+        Collection<Change<Object>> changes = results.get(idx);
+        Assertions.assertEquals(idx % 3 == 0 ? 1 : 0, changes.size());
+        if (!changes.isEmpty()) {
+          Change<Object> change = changes.iterator().next();
+          Assertions.assertEquals("$.name", change.path().toFullPath());
+          Assertions.assertEquals("changed-" + idx, change.rightElement());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testBatchOnDefaultExecutor() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    List<ObjectPair> pairs = buildPairs();
+
+    List<Collection<Change<Object>>> results = gulf.findChangesBatch(pairs);
+    for (int idx = 0; idx < pairs.size(); idx++) {
+      ObjectPair pair = pairs.get(idx);
+      Assertions.assertEquals(gulf.findChanges(pair.left(), pair.right()).size(), results.get(idx).size());
+    }
+  }
+
+  @Test
+  void testStreamingBatch() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    List<ObjectPair> pairs = buildPairs();
+
+    // the consumer is called once per pair, possibly from multiple threads at the same time
+    Map<ObjectPair, Collection<Change<Object>>> results = new ConcurrentHashMap<>();
+    gulf.findChangesBatch(pairs, (pair, changes) -> Assertions.assertNull(results.put(pair, changes)));
+
+    Assertions.assertEquals(pairs.size(), results.size());
+    for (ObjectPair pair : pairs) {
+      Assertions.assertEquals(gulf.findChanges(pair.left(), pair.right()).size(), results.get(pair).size());
+    }
+  }
+
+  @Test
+  void testBatchPropagatesExceptions() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    List<ObjectPair> pairs = buildPairs();
+
+    IllegalStateException exception = Assertions.assertThrows(
+      IllegalStateException.class,
+      () -> gulf.findChangesBatch(pairs, (pair, changes) -> {
+        throw new IllegalStateException("consumer failed");
+      }));
+    Assertions.assertEquals("consumer failed", exception.getMessage());
+  }
+}
@@ -28,9 +28,15 @@
 import dev.derklaro.gulf.diff.array.ArrayElementAddOrRemove;
 import dev.derklaro.gulf.diff.array.ArrayElementChange;
 import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
 import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.seed.SeedB;
+import dev.derklaro.gulf.type.TypeMatchers;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -137,4 +143,72 @@ void testElementChange() {
     Assertions.assertEquals("!", diff.leftElement());
     Assertions.assertEquals(":)", diff.rightElement());
   }
+
+  @Test
+  void testIndexRangeChanges() {
+    Gulf gulf = Gulf.builder().withIndexRangeChanges().build();
+
+    Collection<String> left = Arrays.asList("Hello", "World", "!", "a", "b", "c");
+    Collection<String> right = Arrays.asList("Hello", "Test", "?", "a");
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    CollectionChange<Object, Collection<Object>> col = Assertions.assertInstanceOf(CollectionChange.class, changes.iterator().next());
+    Assertions.assertEquals(2, col.elementChanges().size());
+
+    Iterator<IndexedChange<Object>> iterator = col.elementChanges().iterator();
+    IndexRangeChange<Object> modified = Assertions.assertInstanceOf(IndexRangeChange.class, iterator.next());
+    Assertions.assertEquals(IndexRangeKind.MODIFIED, modified.kind());
+    Assertions.assertEquals(1, modified.fromIndex());
+    Assertions.assertEquals(3, modified.toIndex());
+    Assertions.assertEquals(2, modified.changes().size());
+    Assertions.assertEquals("$.1", modified.changes().iterator().next().path().toFullPath());
+
+    IndexRangeChange<Object> removed = Assertions.assertInstanceOf(IndexRangeChange.class, iterator.next());
+    Assertions.assertEquals(IndexRangeKind.REMOVED, removed.kind());
+    Assertions.assertEquals(4, removed.fromIndex());
+    Assertions.assertEquals(6, removed.toIndex());
+    Assertions.assertEquals(2, removed.length());
+  }
+
+  @Test
+  void testKeyedElementMatching() {
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedB.class, SeedB.LOOKUP)
+      .withCollectionKey(TypeMatchers.exact(SeedB.class), element -> ((SeedB) element).id())
+      .build();
+
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+    UUID fourth = UUID.randomUUID();
+
+    Collection<SeedB> left = Arrays.asList(new SeedB(1, 'a', first, "a"), new SeedB(2, 'b', second, "b"), new SeedB(3, 'c', third, "c"));
+    Collection<SeedB> right = Arrays.asList(new SeedB(4, 'd', fourth, "d"), new SeedB(3, 'c', third, "c"), new SeedB(1, 'a', first, "x"));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    CollectionChange<Object, Collection<Object>> col = Assertions.assertInstanceOf(CollectionChange.class, changes.iterator().next());
+    Assertions.assertEquals(3, col.elementChanges().size());
+
+    Iterator<IndexedChange<Object>> iterator = col.elementChanges().iterator();
+    ArrayElementChange<Object> modified = Assertions.assertInstanceOf(ArrayElementChange.class, iterator.next());
+    Assertions.assertEquals(0, modified.index());
+    Assertions.assertEquals(1, modified.changes().size());
+    Assertions.assertEquals("$." + first + ".str", modified.changes().iterator().next().path().toFullPath());
+
+    ArrayElementAddOrRemove<Object> removed = Assertions.assertInstanceOf(ArrayElementAddOrRemove.class, iterator.next());
+    Assertions.assertEquals(1, removed.index());
+    Assertions.assertNull(removed.rightElement());
+
+    ArrayElementAddOrRemove<Object> added = Assertions.assertInstanceOf(ArrayElementAddOrRemove.class, iterator.next());
+    Assertions.assertEquals(0, added.index());
+    Assertions.assertNull(added.leftElement());
+
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertFalse(gulf.hasChanges(left, Arrays.asList(new SeedB(3, 'c', third, "c"), new SeedB(1, 'a', first, "a"),
+      new SeedB(2, 'b', second, "b"))));
+  }
 }
@@ -26,9 +26,17 @@
 
 import dev.derklaro.gulf.diff.Change;
 import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.reflection.ReflectionDiffFinder;
+import dev.derklaro.gulf.path.ObjectPath;
 import dev.derklaro.gulf.seed.SeedB;
 import dev.derklaro.gulf.type.TypeMatchers;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -122,4 +130,116 @@ void testCustomDiffFinder() {
     Assertions.assertSame(element, change.leftElement());
     Assertions.assertSame(element, change.rightElement());
   }
+
+  @Test
+  void testCustomDiffFinderNullHandling() {
+    // the diff finder treats null as an empty string, which must be respected by the sink based api as well
+    Gulf gulf = Gulf.builder().withDiffFinder(TypeMatchers.exact(String.class), new DiffFinder<Object>() {
+      @Override
+      public Collection<Change<Object>> findChanges(Gulf gulf, ObjectPath path, Type fullType, Object left, Object right) {
+        return DiffFinder.super.findChanges(gulf, path, fullType, left == null ? "" : left, right == null ? "" : right);
+      }
+
+      @Override
+      public Collection<Change<Object>> findChangesNullSafe(Gulf gulf, ObjectPath path, Type fullType, Object left, Object right) {
+        return left.equals(right) ? Changes.none() : Changes.singleton(new Change<>(path, left, right));
+      }
+    }).build();
+
+    Assertions.assertTrue(gulf.findChanges(String.class, "", (Object) null).isEmpty());
+    Assertions.assertEquals(1, gulf.findChanges(String.class, "a", (Object) null).size());
+    Assertions.assertFalse(gulf.hasChanges(String.class, "", null));
+    Assertions.assertFalse(gulf.hasChanges(String.class, null, ""));
+    Assertions.assertTrue(gulf.hasChanges(String.class, "a", null));
+
+    Collection<Change<Object>> changes = new ArrayList<>();
+    gulf.findChanges(String.class, null, "", changes::add);
+    Assertions.assertTrue(changes.isEmpty());
+
+    gulf.findChanges(String.class, null, "b", changes::add);
+    Assertions.assertEquals(1, changes.size());
+    Assertions.assertEquals("", changes.iterator().next().leftElement());
+  }
+
+  @Test
+  void testCustomDiffFinderCanKeepPaths() {
+    // the paths given to custom diff finders must not change after the call, even if a frame is used internally
+    List<ObjectPath> paths = new ArrayList<>();
+    Gulf gulf = Gulf.builder().withLookup(SeedB.class, SeedB.LOOKUP).withDiffFinder(
+      TypeMatchers.exact(String.class),
+      (g, p, t, l, r) -> {
+        paths.add(p);
+        return Changes.none();
+      }).build();
+
+    gulf.findChanges(Arrays.asList("a", "b", "c"), Arrays.asList("d", "e", "f"));
+    gulf.findChanges(new SeedB(1, 'c', null, "Google"), new SeedB(1, 'c', null, "Bing"));
+
+    Assertions.assertEquals(4, paths.size());
+    Assertions.assertEquals("$.0", paths.get(0).toFullPath());
+    Assertions.assertEquals("$.1", paths.get(1).toFullPath());
+    Assertions.assertEquals("$.2", paths.get(2).toFullPath());
+    Assertions.assertEquals("$.str", paths.get(3).toFullPath());
+    Assertions.assertNotEquals(paths.get(0), paths.get(1));
+  }
+
+  @Test
+  void testSharedReflectionDiffFinder() {
+    // the plans of a diff finder shared between two instances are cached per instance
+    ReflectionDiffFinder diffFinder = new ReflectionDiffFinder();
+    Gulf first = Gulf.builder().defaultDiffFinder(diffFinder).withLookup(SeedB.class, SeedB.LOOKUP).build();
+    Gulf second = Gulf.builder()
+      .defaultDiffFinder(diffFinder)
+      .withLookup(SeedB.class, SeedB.LOOKUP)
+      .withDiffFinder(TypeMatchers.exact(String.class), (g, p, t, l, r) -> Changes.none())
+      .build();
+
+    UUID id = UUID.randomUUID();
+    SeedB left = new SeedB(1, 'c', id, "Google");
+    SeedB right = new SeedB(1, 'c', id, "Bing");
+    for (int idx = 0; idx < 3; idx++) {
+      Assertions.assertEquals(1, first.findChanges(left, right).size());
+      Assertions.assertTrue(second.findChanges(left, right).isEmpty());
+    }
+
+    Map<Class<?>, Object> firstPlans = first.planCache(diffFinder);
+    Map<Class<?>, Object> secondPlans = second.planCache(diffFinder);
+    Assertions.assertEquals(1, firstPlans.size());
+    Assertions.assertEquals(1, secondPlans.size());
+    Assertions.assertNotSame(firstPlans.get(SeedB.class), secondPlans.get(SeedB.class));
+
+    Object plan = firstPlans.get(SeedB.class);
+    first.findChanges(left, right);
+    Assertions.assertSame(plan, first.planCache(diffFinder).get(SeedB.class));
+  }
+
+  @Test
+  void testDiffFinderResolutionIsCached() {
+    Gulf gulf = Gulf.builder().build();
+    Assertions.assertEquals(0, gulf.diffFinderCacheHits());
+    Assertions.assertEquals(0, gulf.diffFinderCacheMisses());
+
+    Assertions.assertTrue(gulf.findChanges(1, 1).isEmpty());
+    Assertions.assertEquals(0, gulf.diffFinderCacheHits());
+    Assertions.assertEquals(1, gulf.diffFinderCacheMisses());
+
+    Assertions.assertEquals(1, gulf.findChanges(1, 2).size());
+    Assertions.assertEquals(1, gulf.diffFinderCacheHits());
+    Assertions.assertEquals(1, gulf.diffFinderCacheMisses());
+  }
+
+  @Test
+  void testDiffFinderResolutionKeepsRegistrationOrder() {
+    DiffFinder<Object> first = (g, p, t, l, r) -> Changes.none();
+    DiffFinder<Object> second = (g, p, t, l, r) -> Changes.none();
+
+    Gulf gulf = Gulf.builder()
+      .withDiffFinder(TypeMatchers.exact(SeedB.class), first)
+      .withDiffFinder(TypeMatchers.exact(SeedB.class), second)
+      .build();
+
+    Assertions.assertSame(first, gulf.findDiffFinder(SeedB.class));
+    Assertions.assertSame(first, gulf.findDiffFinder(SeedB.class));
+    Assertions.assertEquals(1, gulf.diffFinderCacheHits());
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.MemoizedChange;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.seed.SeedE;
+import dev.derklaro.gulf.seed.SeedF;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("unchecked")
+final class CycleCompareTest {
+
+  @Test
+  void testCyclicGraph() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+
+    // the children are pointing back to their parent
+    SeedE left = new SeedE("root").withChildren(new SeedE("a"), new SeedE("b"));
+    SeedE right = new SeedE("root").withChildren(new SeedE("a"), new SeedE("c"));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    Change<Object> change = changes.iterator().next();
+    Assertions.assertEquals("$.second.name", change.path().toFullPath());
+    Assertions.assertEquals("b", change.leftElement());
+    Assertions.assertEquals("c", change.rightElement());
+
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertFalse(gulf.hasChanges(left, new SeedE("root").withChildren(new SeedE("a"), new SeedE("b"))));
+  }
+
+  @Test
+  void testSharedSubgraphWithoutMemoization() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).withoutMemoizedSubgraphs().build();
+
+    // both fields are referencing the same node
+    SeedE leftShared = new SeedE("shared");
+    SeedE rightShared = new SeedE("changed");
+    SeedE left = new SeedE("root").withChildren(leftShared, leftShared);
+    SeedE right = new SeedE("root").withChildren(rightShared, rightShared);
+
+    // both references are reported, just like for objects that aren't shared
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(2, changes.size());
+
+    Iterator<Change<Object>> iterator = changes.iterator();
+    Assertions.assertEquals("$.first.name", iterator.next().path().toFullPath());
+    Assertions.assertEquals("$.second.name", iterator.next().path().toFullPath());
+  }
+
+  @Test
+  void testMemoizedSubgraph() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+
+    SeedE leftShared = new SeedE("shared");
+    SeedE rightShared = new SeedE("changed");
+    SeedE left = new SeedE("root").withChildren(leftShared, leftShared);
+    SeedE right = new SeedE("root").withChildren(rightShared, rightShared);
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(2, changes.size());
+
+    Iterator<Change<Object>> iterator = changes.iterator();
+    Change<Object> change = iterator.next();
+    Assertions.assertEquals("$.first.name", change.path().toFullPath());
+
+    // the second reference is not diffed again, it points to the changes of the first one
+    MemoizedChange<Object> memoized = Assertions.assertInstanceOf(MemoizedChange.class, iterator.next());
+    Assertions.assertEquals("$.second", memoized.path().toFullPath());
+    Assertions.assertSame(leftShared, memoized.leftElement());
+    Assertions.assertSame(rightShared, memoized.rightElement());
+    Assertions.assertEquals(1, memoized.changes().size());
+    Assertions.assertSame(change, memoized.changes().iterator().next());
+  }
+
+  @Test
+  void testMemoizedSubgraphInRootList() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+
+    // the elements of the list are compared in the same call, so the second element sees the visit of the first
+    SeedE leftShared = new SeedE("shared");
+    SeedE rightShared = new SeedE("changed");
+    Collection<Change<Object>> changes = gulf.findChanges(
+      Arrays.asList(leftShared, leftShared),
+      Arrays.asList(rightShared, rightShared));
+
+    CollectionChange<Object, Collection<Object>> change = Assertions.assertInstanceOf(CollectionChange.class, changes.iterator().next());
+    Iterator<IndexedChange<Object>> elementChanges = change.elementChanges().iterator();
+    ArrayElementChange<Object> first = Assertions.assertInstanceOf(ArrayElementChange.class, elementChanges.next());
+    ArrayElementChange<Object> second = Assertions.assertInstanceOf(ArrayElementChange.class, elementChanges.next());
+    Assertions.assertEquals("$.0.name", first.changes().iterator().next().path().toFullPath());
+    Assertions.assertInstanceOf(MemoizedChange.class, second.changes().iterator().next());
+  }
+
+  @Test
+  void testWithoutCycleDetection() {
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedE.class, SeedE.LOOKUP)
+      .withLookup(SeedF.class, SeedF.LOOKUP)
+      .withoutCycleDetection()
+      .withoutMemoizedSubgraphs()
+      .build();
+
+    // the list references the same node twice, the graph has no cycles
+    SeedE leftShared = new SeedE("shared");
+    SeedE rightShared = new SeedE("changed");
+    SeedF left = new SeedF("root", Arrays.asList(leftShared, leftShared), Collections.emptyMap());
+    SeedF right = new SeedF("root", Arrays.asList(rightShared, rightShared), Collections.emptyMap());
+
+    // both references to the shared node are diffed, no memoized change is emitted
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    CollectionChange<Object, Collection<Object>> change = Assertions.assertInstanceOf(CollectionChange.class, changes.iterator().next());
+    Assertions.assertEquals(2, change.elementChanges().size());
+    for (IndexedChange<Object> elementChange : change.elementChanges()) {
+      ArrayElementChange<Object> element = Assertions.assertInstanceOf(ArrayElementChange.class, elementChange);
+      Assertions.assertFalse(element.changes().iterator().next() instanceof MemoizedChange<?>);
+    }
+  }
+}
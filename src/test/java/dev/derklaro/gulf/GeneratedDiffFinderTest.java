@@ -0,0 +1,80 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.finder.DiffFinder;
+import dev.derklaro.gulf.finder.GeneratedDiffFinder;
+import dev.derklaro.gulf.finder.reflection.ReflectionDiffFinder;
+import dev.derklaro.gulf.limit.BoundedChanges;
+import dev.derklaro.gulf.limit.DiffLimits;
+import dev.derklaro.gulf.seed.SeedD;
+import java.util.Collection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class GeneratedDiffFinderTest {
+
+  @Test
+  void testGeneratedFinderIsRegistered() {
+    // the finder for SeedD is generated by the annotation processor when compiling the tests
+    Gulf gulf = Gulf.builder().build();
+    DiffFinder<Object> diffFinder = gulf.findDiffFinder(SeedD.class);
+    Assertions.assertInstanceOf(GeneratedDiffFinder.class, diffFinder);
+    Assertions.assertEquals("SeedD_GulfDiffFinder", diffFinder.getClass().getSimpleName());
+
+    Collection<Change<Object>> changes = gulf.findChanges(new SeedD(1, "Hello"), new SeedD(2, "Hello"));
+    Assertions.assertEquals(1, changes.size());
+
+    Change<Object> change = changes.iterator().next();
+    Assertions.assertEquals("$.id", change.path().toFullPath());
+    Assertions.assertEquals(1, change.leftElement());
+    Assertions.assertEquals(2, change.rightElement());
+
+    Assertions.assertFalse(gulf.hasChanges(new SeedD(1, "Hello"), new SeedD(1, "Hello")));
+    Assertions.assertTrue(gulf.hasChanges(new SeedD(1, "Hello"), new SeedD(1, "World")));
+  }
+
+  @Test
+  void testGeneratedFinderStopsAtLimit() {
+    Gulf gulf = Gulf.builder().build();
+    BoundedChanges result = gulf.findChangesBounded(
+      new SeedD(1, "Hello"),
+      new SeedD(2, "World"),
+      DiffLimits.unlimited().withMaxChanges(1));
+
+    // the name is not compared once the change of the id was found
+    Assertions.assertTrue(result.truncated());
+    Assertions.assertEquals(1, result.changes().size());
+    Assertions.assertEquals("$.id", result.changes().iterator().next().path().toFullPath());
+    Assertions.assertEquals(0, result.skippedComparisons());
+  }
+
+  @Test
+  void testGeneratedFindersCanBeDisabled() {
+    Gulf gulf = Gulf.builder().withoutGeneratedDiffFinders().build();
+    Assertions.assertInstanceOf(ReflectionDiffFinder.class, gulf.findDiffFinder(SeedD.class));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.seed.SeedA;
+import dev.derklaro.gulf.seed.SeedB;
+import dev.derklaro.gulf.type.TypeMatchers;
+import dev.derklaro.gulf.util.MapUtil;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class HasChangesTest {
+
+  @Test
+  void testNullCompare() {
+    Gulf gulf = Gulf.builder().build();
+
+    Assertions.assertFalse(gulf.hasChanges(null, null));
+    Assertions.assertTrue(gulf.hasChanges(null, "Hello"));
+    Assertions.assertTrue(gulf.hasChanges("Hello", null));
+  }
+
+  @Test
+  void testBasicCompare() {
+    Gulf gulf = Gulf.builder().build();
+
+    Assertions.assertFalse(gulf.hasChanges(1230, 1230));
+    Assertions.assertTrue(gulf.hasChanges(10, 1020));
+    Assertions.assertFalse(gulf.hasChanges(Double.NaN, Double.NaN));
+    Assertions.assertTrue(gulf.hasChanges("Hello", "World"));
+    Assertions.assertFalse(gulf.hasChanges(Integer.class, 1, 1));
+  }
+
+  @Test
+  void testContainerCompare() {
+    Gulf gulf = Gulf.builder().build();
+
+    Assertions.assertFalse(gulf.hasChanges(Arrays.asList("Hello", "World"), Arrays.asList("Hello", "World")));
+    Assertions.assertTrue(gulf.hasChanges(Arrays.asList("Hello", "World"), Arrays.asList("Hello", "World!")));
+    Assertions.assertTrue(gulf.hasChanges(Arrays.asList("Hello", "World"), Collections.singletonList("Hello")));
+
+    Assertions.assertFalse(gulf.hasChanges(new String[]{"Hello"}, new String[]{"Hello"}));
+    Assertions.assertTrue(gulf.hasChanges(new String[]{"Hello"}, new String[]{"World"}));
+
+    Assertions.assertFalse(gulf.hasChanges(MapUtil.of("Hello", "World"), MapUtil.of("Hello", "World")));
+    Assertions.assertTrue(gulf.hasChanges(MapUtil.of("Hello", "World"), MapUtil.of("Hello", "World!")));
+    Assertions.assertTrue(gulf.hasChanges(MapUtil.of("Hello", "World"), MapUtil.of("World", "World")));
+  }
+
+  @Test
+  void testNestedCompare() {
+    UUID randomId = UUID.randomUUID();
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedA.class, SeedA.LOOKUP)
+      .withLookup(SeedB.class, SeedB.LOOKUP)
+      .build();
+
+    SeedA left = new SeedA(
+      randomId,
+      new SeedB(1, 'a', randomId, "Hello World"),
+      Collections.singletonList(new SeedB(1234, 'b', randomId, "World")),
+      MapUtil.of("TestingA", Collections.singleton(new SeedB(1234567, 'd', randomId, "Google"))));
+    SeedA right = new SeedA(
+      randomId,
+      new SeedB(1, 'a', randomId, "Hello World"),
+      Collections.singletonList(new SeedB(1234, 'b', randomId, "World")),
+      MapUtil.of("TestingA", Collections.singleton(new SeedB(1234567, 'z', randomId, "Google"))));
+
+    Assertions.assertFalse(gulf.hasChanges(left, left));
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertEquals(!gulf.findChanges(left, right).isEmpty(), gulf.hasChanges(left, right));
+  }
+
+  @Test
+  void testCustomDiffFinderFallback() {
+    SeedB element = new SeedB(123, 'a', UUID.randomUUID(), "Google");
+    Gulf gulf = Gulf.builder()
+      .withDiffFinder(TypeMatchers.exact(SeedB.class), (g, p, t, l, r) -> {
+        Change<Object> change = new Change<>(p, l, r);
+        return Changes.singleton(change);
+      })
+      .build();
+
+    Assertions.assertTrue(gulf.hasChanges(element, element));
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.MemoizedChange;
+import dev.derklaro.gulf.diff.array.ArrayChange;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.map.MapChange;
+import dev.derklaro.gulf.diff.map.MapEntryChange;
+import dev.derklaro.gulf.seed.SeedE;
+import dev.derklaro.gulf.seed.SeedG;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class IterativeTraversalTest {
+
+  private static final int DEPTH = 50_000;
+
+  private static SeedE chain(int depth, String leafName) {
+    SeedE current = new SeedE(leafName);
+    for (int i = 0; i < depth; i++) {
+      current = new SeedE("node").withChildren(current, null);
+    }
+    return current;
+  }
+
+  private static SeedG tree(int depth, String leafName) {
+    // the nodes are nested through a list, a hash map, a sorted map and an array in turns
+    SeedG current = new SeedG(leafName);
+    for (int i = 0; i < depth; i++) {
+      SeedG node = new SeedG("node");
+      switch (i % 4) {
+        case 0:
+          node.withChildren(Collections.singletonList(current));
+          break;
+        case 1:
+          node.withNamed(Collections.singletonMap("next", current));
+          break;
+        case 2:
+          node.withNamed(new TreeMap<>(Collections.singletonMap("next", current)));
+          break;
+        default:
+          node.withArray(current);
+          break;
+      }
+      current = node;
+    }
+    return current;
+  }
+
+  private static Change<?> leafChange(Change<?> change) {
+    // walk down the nested changes in a loop, the change tree is as deep as the object tree
+    while (true) {
+      Collection<? extends Change<?>> nested;
+      if (change instanceof CollectionChange<?, ?>) {
+        nested = ((CollectionChange<?, ?>) change).elementChanges();
+      } else if (change instanceof ArrayChange<?>) {
+        nested = ((ArrayChange<?>) change).elementChanges();
+      } else if (change instanceof ArrayElementChange<?>) {
+        nested = ((ArrayElementChange<?>) change).changes();
+      } else if (change instanceof MapChange<?, ?, ?>) {
+        nested = ((MapChange<?, ?, ?>) change).entryChanges();
+      } else if (change instanceof MapEntryChange<?, ?>) {
+        nested = ((MapEntryChange<?, ?>) change).changes();
+      } else {
+        return change;
+      }
+
+      Assertions.assertEquals(1, nested.size());
+      change = nested.iterator().next();
+    }
+  }
+
+  private static void describe(Collection<? extends Change<?>> changes, List<String> out) {
+    for (Change<?> change : changes) {
+      out.add(change.getClass().getSimpleName() + " " + change.path().toFullPath());
+      if (change instanceof CollectionChange<?, ?>) {
+        describe(((CollectionChange<?, ?>) change).elementChanges(), out);
+      } else if (change instanceof ArrayChange<?>) {
+        describe(((ArrayChange<?>) change).elementChanges(), out);
+      } else if (change instanceof ArrayElementChange<?>) {
+        describe(((ArrayElementChange<?>) change).changes(), out);
+      } else if (change instanceof IndexRangeChange<?>) {
+        describe(((IndexRangeChange<?>) change).changes(), out);
+      } else if (change instanceof MapChange<?, ?, ?>) {
+        describe(((MapChange<?, ?, ?>) change).entryChanges(), out);
+      } else if (change instanceof MapEntryChange<?, ?>) {
+        describe(((MapEntryChange<?, ?>) change).changes(), out);
+      }
+    }
+  }
+
+  private static List<String> paths(Collection<Change<Object>> changes) {
+    List<String> paths = new ArrayList<>();
+    for (Change<Object> change : changes) {
+      paths.add(change.path().toFullPath());
+    }
+    return paths;
+  }
+
+  @Test
+  void testDeepChain() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).withIterativeTraversal().build();
+
+    SeedE left = chain(DEPTH, "a");
+    SeedE right = chain(DEPTH, "b");
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    Change<Object> change = changes.iterator().next();
+    Assertions.assertEquals(DEPTH + 1, change.path().depth());
+    Assertions.assertEquals("a", change.leftElement());
+    Assertions.assertEquals("b", change.rightElement());
+
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertFalse(gulf.hasChanges(left, chain(DEPTH, "a")));
+  }
+
+  @Test
+  void testSameChangesAsRecursiveTraversal() {
+    Gulf recursive = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    Gulf iterative = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).withIterativeTraversal().build();
+
+    SeedE leftShared = new SeedE("shared").withChildren(new SeedE("x"), new SeedE("y"));
+    SeedE rightShared = new SeedE("changed").withChildren(new SeedE("x"), new SeedE("z"));
+    SeedE left = new SeedE("root").withChildren(new SeedE("a").withChildren(leftShared, new SeedE("c")), leftShared);
+    SeedE right = new SeedE("root").withChildren(new SeedE("b").withChildren(rightShared, new SeedE("d")), rightShared);
+
+    Collection<Change<Object>> expected = recursive.findChanges(left, right);
+    Collection<Change<Object>> actual = iterative.findChanges(left, right);
+    Assertions.assertEquals(paths(expected), paths(actual));
+    Assertions.assertInstanceOf(MemoizedChange.class, new ArrayList<>(actual).get(actual.size() - 1));
+
+    Assertions.assertEquals(recursive.hasChanges(left, right), iterative.hasChanges(left, right));
+  }
+
+  @Test
+  void testDeepContainerTree() {
+    Gulf gulf = Gulf.builder().withLookup(SeedG.class, SeedG.LOOKUP).withIterativeTraversal().build();
+    SeedG left = tree(DEPTH, "a");
+    SeedG right = tree(DEPTH, "b");
+
+    // each level adds the field and the element index or key to the path
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+    Change<?> change = leafChange(changes.iterator().next());
+    Assertions.assertEquals(2 * DEPTH + 1, change.path().depth());
+    Assertions.assertEquals("a", change.leftElement());
+    Assertions.assertEquals("b", change.rightElement());
+
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertFalse(gulf.hasChanges(left, tree(DEPTH, "a")));
+  }
+
+  @Test
+  void testDeepRootList() {
+    Gulf gulf = Gulf.builder().withIterativeTraversal().build();
+
+    // lists nested directly into each other, without any object in between
+    List<Object> left = Collections.singletonList("a");
+    List<Object> right = Collections.singletonList("b");
+    for (int i = 0; i < DEPTH; i++) {
+      left = Collections.singletonList(left);
+      right = Collections.singletonList(right);
+    }
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Change<?> change = leafChange(changes.iterator().next());
+    Assertions.assertEquals(DEPTH + 1, change.path().depth());
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+  }
+
+  @Test
+  void testContainersSameAsRecursiveTraversal() {
+    Gulf recursive = Gulf.builder().withLookup(SeedG.class, SeedG.LOOKUP).build();
+    Gulf iterative = Gulf.builder().withLookup(SeedG.class, SeedG.LOOKUP).withIterativeTraversal().build();
+
+    Map<String, SeedG> leftNamed = new HashMap<>();
+    leftNamed.put("same", new SeedG("same"));
+    leftNamed.put("changed", new SeedG("x"));
+    leftNamed.put("removed", new SeedG("removed"));
+    Map<String, SeedG> rightNamed = new HashMap<>();
+    rightNamed.put("same", new SeedG("same"));
+    rightNamed.put("changed", new SeedG("y"));
+    rightNamed.put("added", new SeedG("added"));
+
+    // elements were changed, added and removed in all kinds of containers
+    SeedG left = new SeedG("root")
+      .withChildren(Arrays.asList(new SeedG("a"), null, new SeedG("b").withNamed(new TreeMap<>(leftNamed))))
+      .withNamed(leftNamed)
+      .withArray(new SeedG("c"), new SeedG("d"), new SeedG("e"));
+    SeedG right = new SeedG("root")
+      .withChildren(Arrays.asList(new SeedG("a"), new SeedG("x"), new SeedG("c").withNamed(new TreeMap<>(rightNamed)), null))
+      .withNamed(rightNamed)
+      .withArray(new SeedG("c"), new SeedG("f"));
+
+    List<String> expected = new ArrayList<>();
+    describe(recursive.findChanges(left, right), expected);
+    List<String> actual = new ArrayList<>();
+    describe(iterative.findChanges(left, right), actual);
+    Assertions.assertFalse(expected.isEmpty());
+    Assertions.assertEquals(expected, actual);
+
+    Assertions.assertTrue(iterative.hasChanges(left, right));
+    Assertions.assertFalse(iterative.hasChanges(left, left));
+  }
+}
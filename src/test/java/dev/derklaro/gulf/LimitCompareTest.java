@@ -0,0 +1,243 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.map.MapChange;
+import dev.derklaro.gulf.diff.map.MapEntryChange;
+import dev.derklaro.gulf.limit.BoundedChanges;
+import dev.derklaro.gulf.limit.DiffLimits;
+import dev.derklaro.gulf.limit.LimitKind;
+import dev.derklaro.gulf.seed.SeedE;
+import dev.derklaro.gulf.seed.SeedG;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("unchecked")
+final class LimitCompareTest {
+
+  private static List<String> buildList(String prefix) {
+    List<String> list = new ArrayList<>();
+    for (int idx = 0; idx < 100; idx++) {
+      list.add(prefix + idx);
+    }
+    return list;
+  }
+
+  private static SeedG buildTree(String prefix) {
+    // a changed name, three children with three changed elements each and a changed map entry
+    List<SeedG> children = new ArrayList<>();
+    for (int idx = 0; idx < 3; idx++) {
+      List<SeedG> elements = new ArrayList<>();
+      for (int element = 0; element < 3; element++) {
+        elements.add(new SeedG(prefix + idx + "-" + element));
+      }
+      children.add(new SeedG("child-" + idx).withChildren(elements));
+    }
+    return new SeedG(prefix)
+      .withChildren(children)
+      .withNamed(Collections.singletonMap("entry", new SeedG(prefix + "entry")));
+  }
+
+  private static int countChanges(Collection<? extends Change<?>> changes) {
+    // counts the changes which are not wrapping other changes
+    int count = 0;
+    for (Change<?> change : changes) {
+      if (change instanceof CollectionChange<?, ?>) {
+        count += countChanges(((CollectionChange<?, ?>) change).elementChanges());
+      } else if (change instanceof ArrayElementChange<?>) {
+        count += countChanges(((ArrayElementChange<?>) change).changes());
+      } else if (change instanceof MapChange<?, ?, ?>) {
+        count += countChanges(((MapChange<?, ?, ?>) change).entryChanges());
+      } else if (change instanceof MapEntryChange<?, ?>) {
+        count += countChanges(((MapEntryChange<?, ?>) change).changes());
+      } else {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static SeedE buildChain(String rootName, String leafName) {
+    SeedE node = new SeedE(leafName);
+    for (int idx = 0; idx < 5; idx++) {
+      node = new SeedE("node-" + idx).withChildren(node, null);
+    }
+    return new SeedE(rootName).withChildren(node, null);
+  }
+
+  @Test
+  void testMaxChanges() {
+    Gulf gulf = Gulf.builder().build();
+    BoundedChanges result = gulf.findChangesBounded(
+      buildList("left-"),
+      buildList("right-"),
+      DiffLimits.unlimited().withMaxChanges(5));
+
+    Assertions.assertTrue(result.truncated());
+    Assertions.assertEquals(LimitKind.CHANGES, result.limitReached());
+    Assertions.assertEquals("$.4", result.limitPath().toFullPath());
+    Assertions.assertEquals(5, result.emittedChanges());
+
+    // only the changes of the strings are counted, the change of the list only wraps them
+    Assertions.assertEquals(1, result.changes().size());
+    CollectionChange<Object, ?> change = (CollectionChange<Object, ?>) result.changes().iterator().next();
+    Assertions.assertEquals(5, change.elementChanges().size());
+  }
+
+  @Test
+  void testMaxChangesNested() {
+    SeedG left = buildTree("left-");
+    SeedG right = buildTree("right-");
+
+    // the changes must be counted the same way when the traversal runs iteratively
+    Gulf recursive = Gulf.builder().withLookup(SeedG.class, SeedG.LOOKUP).build();
+    Gulf iterative = Gulf.builder().withLookup(SeedG.class, SeedG.LOOKUP).withIterativeTraversal().build();
+    for (Gulf gulf : Arrays.asList(recursive, iterative)) {
+      int totalChanges = countChanges(gulf.findChanges(left, right));
+      Assertions.assertEquals(11, totalChanges);
+
+      for (int maxChanges = 0; maxChanges < totalChanges; maxChanges++) {
+        BoundedChanges result = gulf.findChangesBounded(left, right, DiffLimits.unlimited().withMaxChanges(maxChanges));
+        Assertions.assertTrue(result.truncated());
+        Assertions.assertTrue(result.changes().size() <= maxChanges);
+        Assertions.assertEquals(maxChanges, countChanges(result.changes()));
+        Assertions.assertEquals(maxChanges, result.emittedChanges());
+      }
+    }
+  }
+
+  @Test
+  void testMaxDepth() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    BoundedChanges result = gulf.findChangesBounded(
+      buildChain("root", "leaf"),
+      buildChain("changed", "changed"),
+      DiffLimits.unlimited().withMaxDepth(3));
+
+    // only the subtree that is too deep is skipped, the change of the root name is still found
+    Assertions.assertTrue(result.truncated());
+    Assertions.assertEquals(LimitKind.DEPTH, result.limitReached());
+    Assertions.assertTrue(result.skippedComparisons() > 0);
+    Assertions.assertEquals(1, result.changes().size());
+    Assertions.assertEquals("$.name", result.changes().iterator().next().path().toFullPath());
+  }
+
+  @Test
+  void testMaxDepthIterative() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).withIterativeTraversal().build();
+    BoundedChanges result = gulf.findChangesBounded(
+      buildChain("root", "leaf"),
+      buildChain("changed", "changed"),
+      DiffLimits.unlimited().withMaxDepth(3));
+
+    Assertions.assertTrue(result.truncated());
+    Assertions.assertEquals(LimitKind.DEPTH, result.limitReached());
+    Assertions.assertEquals(1, result.changes().size());
+    Assertions.assertEquals("$.name", result.changes().iterator().next().path().toFullPath());
+  }
+
+  @Test
+  void testMaxVisitedNodes() {
+    // bounded calls are never compared in chunks, the limits must be applied in order
+    Gulf gulf = Gulf.builder().parallelThreshold(4).withParallelChunks().build();
+    BoundedChanges result = gulf.findChangesBounded(
+      buildList("left-"),
+      buildList("right-"),
+      DiffLimits.unlimited().withMaxVisitedNodes(11));
+
+    // the list itself is the first visited node
+    Assertions.assertTrue(result.truncated());
+    Assertions.assertEquals(LimitKind.VISITED_NODES, result.limitReached());
+    Assertions.assertEquals(11, result.visitedNodes());
+    Assertions.assertEquals("$.10", result.limitPath().toFullPath());
+
+    CollectionChange<Object, ?> change = (CollectionChange<Object, ?>) result.changes().iterator().next();
+    Assertions.assertEquals(10, change.elementChanges().size());
+  }
+
+  @Test
+  void testWithinLimits() {
+    Gulf gulf = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    SeedE left = buildChain("root", "leaf");
+    SeedE right = buildChain("root", "changed");
+
+    BoundedChanges result = gulf.findChangesBounded(left, right, DiffLimits.unlimited().withMaxDepth(10));
+    Assertions.assertFalse(result.truncated());
+    Assertions.assertNull(result.limitReached());
+    Assertions.assertNull(result.limitPath());
+    Assertions.assertEquals(0, result.skippedComparisons());
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(changes.size(), result.changes().size());
+    Assertions.assertEquals(
+      changes.iterator().next().path().toFullPath(),
+      result.changes().iterator().next().path().toFullPath());
+  }
+
+  @Test
+  void testBoundedPathInUnboundedCall() {
+    Gulf gulf = Gulf.builder().build();
+    BoundedChanges result = gulf.findChangesBounded(
+      buildList("left-"),
+      buildList("right-"),
+      DiffLimits.unlimited().withMaxChanges(1));
+    Assertions.assertTrue(result.truncated());
+
+    // the paths of a bounded result don't apply the exhausted limits to a later call
+    CollectionChange<Object, ?> change = (CollectionChange<Object, ?>) result.changes().iterator().next();
+    Change<?> elementChange = change.elementChanges().iterator().next();
+    for (Change<?> pathSource : Arrays.<Change<?>>asList(change, elementChange)) {
+      Collection<Change<Object>> changes = gulf.findChanges(
+        null,
+        pathSource.path(),
+        Arrays.asList("a", "b"),
+        Arrays.asList("c", "d"));
+      Assertions.assertEquals(1, changes.size());
+      Assertions.assertEquals(2, countChanges(changes));
+    }
+
+    Collection<Change<Object>> changes = gulf.findChanges(
+      null,
+      result.limitPath(),
+      Arrays.asList("a", "b"),
+      Arrays.asList("c", "d"));
+    Assertions.assertEquals(2, countChanges(changes));
+  }
+
+  @Test
+  void testNegativeLimit() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> DiffLimits.unlimited().withMaxChanges(-1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> DiffLimits.unlimited().withMaxDepth(-1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> DiffLimits.unlimited().withMaxVisitedNodes(-1));
+  }
+}
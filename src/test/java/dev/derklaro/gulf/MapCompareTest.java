@@ -31,7 +31,14 @@
 import dev.derklaro.gulf.diff.map.MapEntryChange;
 import dev.derklaro.gulf.util.MapUtil;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -135,4 +142,107 @@ void testElementChange() {
     Assertions.assertEquals("No", entryChange.rightElement());
     Assertions.assertEquals("Test", entryChange.key());
   }
+
+  @Test
+  void testSortedMapMergeWalk() {
+    Gulf gulf = Gulf.builder().build();
+
+    SortedMap<String, String> left = new TreeMap<>(MapUtil.of("a", "1", "b", "2", "d", "4"));
+    SortedMap<String, String> right = new TreeMap<>(MapUtil.of("b", "2", "c", "3", "d", "5"));
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    MapChange<Object, Object, Map<Object, Object>> map = Assertions.assertInstanceOf(MapChange.class, changes.iterator().next());
+    Assertions.assertEquals(3, map.entryChanges().size());
+
+    // the entry changes are reported in key order
+    Iterator<KeyedChange<Object, Object>> iterator = map.entryChanges().iterator();
+    MapEntryAddOrRemove<Object, Object> removed = Assertions.assertInstanceOf(MapEntryAddOrRemove.class, iterator.next());
+    Assertions.assertTrue(removed.elementRemoved());
+    Assertions.assertEquals("a", removed.key());
+
+    MapEntryAddOrRemove<Object, Object> added = Assertions.assertInstanceOf(MapEntryAddOrRemove.class, iterator.next());
+    Assertions.assertTrue(added.elementAdded());
+    Assertions.assertEquals("c", added.key());
+
+    MapEntryChange<Object, Object> modified = Assertions.assertInstanceOf(MapEntryChange.class, iterator.next());
+    Assertions.assertEquals("d", modified.key());
+    Assertions.assertEquals("5", modified.rightElement());
+  }
+
+  @Test
+  void testSortedMapDifferentComparators() {
+    Gulf gulf = Gulf.builder().build();
+
+    SortedMap<String, String> left = new TreeMap<>(MapUtil.of("a", "1", "b", "2"));
+    SortedMap<String, String> right = new TreeMap<>(Comparator.reverseOrder());
+    right.putAll(left);
+
+    // the maps are sorted differently, but contain the same entries
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+  }
+
+  @Test
+  void testEnumMap() {
+    Gulf gulf = Gulf.builder().build();
+
+    Map<TimeUnit, String> left = new EnumMap<>(TimeUnit.class);
+    left.put(TimeUnit.SECONDS, "s");
+    left.put(TimeUnit.MINUTES, "m");
+    Map<TimeUnit, String> right = new EnumMap<>(TimeUnit.class);
+    right.put(TimeUnit.MILLISECONDS, "ms");
+    right.put(TimeUnit.MINUTES, "min");
+
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    MapChange<Object, Object, Map<Object, Object>> map = Assertions.assertInstanceOf(MapChange.class, changes.iterator().next());
+    Assertions.assertEquals(3, map.entryChanges().size());
+
+    // the entry changes are reported in ordinal order
+    Iterator<KeyedChange<Object, Object>> iterator = map.entryChanges().iterator();
+    Assertions.assertEquals(TimeUnit.MILLISECONDS, iterator.next().key());
+    Assertions.assertEquals(TimeUnit.SECONDS, iterator.next().key());
+    Assertions.assertInstanceOf(MapEntryChange.class, iterator.next());
+  }
+
+  @Test
+  void testIdentityHashMap() {
+    Gulf gulf = Gulf.builder().build();
+
+    Object key = new Object();
+    Map<Object, String> left = new IdentityHashMap<>();
+    left.put(key, "a");
+    left.put(new Object(), null);
+    Map<Object, String> right = new IdentityHashMap<>();
+    right.put(key, "b");
+    right.put(new Object(), null);
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    MapChange<Object, Object, Map<Object, Object>> map = Assertions.assertInstanceOf(MapChange.class, changes.iterator().next());
+    Assertions.assertEquals(3, map.entryChanges().size());
+    Assertions.assertEquals(1, map.entryChanges().stream().filter(change -> change instanceof MapEntryChange).count());
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+
+    // the iterative traversal walks over the mappings of the identity hash map using a cursor
+    Gulf iterative = Gulf.builder().withIterativeTraversal().build();
+    changes = iterative.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    map = Assertions.assertInstanceOf(MapChange.class, changes.iterator().next());
+    Assertions.assertEquals(3, map.entryChanges().size());
+    Assertions.assertEquals(1, map.entryChanges().stream().filter(change -> change instanceof MapEntryChange).count());
+    Assertions.assertTrue(iterative.hasChanges(left, right));
+
+    Map<Object, String> same = new IdentityHashMap<>(left);
+    Assertions.assertFalse(gulf.hasChanges(left, same));
+    Assertions.assertFalse(iterative.hasChanges(left, same));
+    Assertions.assertTrue(iterative.findChanges(left, same).isEmpty());
+  }
 }
@@ -35,10 +35,12 @@
 import dev.derklaro.gulf.seed.SeedA;
 import dev.derklaro.gulf.seed.SeedB;
 import dev.derklaro.gulf.util.MapUtil;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.Assertions;
@@ -80,7 +82,7 @@ void testChanges() {
         new SeedB(1234, 'b', randomId, "World"),
         new SeedB(12345, 'c', randomId, "Hello")),
       MapUtil.of(
-        "TestingA", Collections.singleton(new SeedB(1234567, 'd', randomId, "Google")),
+        "TestingA", Collections.singletonList(new SeedB(1234567, 'd', randomId, "Google")),
         "TestingB", Collections.singleton(new SeedB(1236745, 'e', randomId, "Bing"))));
     SeedA right = new SeedA(
       randomId,
@@ -89,7 +91,7 @@ void testChanges() {
         new SeedB(1234, 'b', UUID.randomUUID(), "World"),
         new SeedB(12345, 'c', randomId, "Hello")),
       MapUtil.of(
-        "TestingA", Collections.singleton(new SeedB(1234567, 'z', randomId, "Google!")),
+        "TestingA", Collections.singletonList(new SeedB(1234567, 'z', randomId, "Google!")),
         "TestingC", Collections.singleton(new SeedB(1236745, 'e', randomId, "Bing"))));
 
     Gulf gulf = Gulf.builder()
@@ -134,7 +136,8 @@ void testChanges() {
       Assertions.assertEquals(1, inElementChanges.size());
 
       Change<Object> theChange = inElementChanges.iterator().next();
-      Assertions.assertEquals("$.colOfSeedB.id", theChange.path().toFullPath());
+      Assertions.assertEquals("$.colOfSeedB.0.id", theChange.path().toFullPath());
+      Assertions.assertEquals(0, theChange.path().parent().index());
       Assertions.assertInstanceOf(UUID.class, theChange.leftElement());
       Assertions.assertInstanceOf(UUID.class, theChange.rightElement());
     });
@@ -166,12 +169,13 @@ void testChanges() {
 
         Iterator<Change<Object>> iterator = c.iterator();
         validateNextChange(iterator, elementChange -> {
-          Assertions.assertEquals("$.mapColOfSeedB.c", elementChange.path().toFullPath());
+          Assertions.assertEquals("$.mapColOfSeedB.TestingA.0.c", elementChange.path().toFullPath());
+          Assertions.assertEquals("/mapColOfSeedB/TestingA/0/c", elementChange.path().toJsonPointer());
           Assertions.assertEquals('d', elementChange.leftElement());
           Assertions.assertEquals('z', elementChange.rightElement());
         });
         validateNextChange(iterator, elementChange -> {
-          Assertions.assertEquals("$.mapColOfSeedB.str", elementChange.path().toFullPath());
+          Assertions.assertEquals("$.mapColOfSeedB.TestingA.0.str", elementChange.path().toFullPath());
           Assertions.assertEquals("Google", elementChange.leftElement());
           Assertions.assertEquals("Google!", elementChange.rightElement());
         });
@@ -194,4 +198,38 @@ void testChanges() {
       });
     });
   }
+
+  @Test
+  void testStreamingChanges() {
+    UUID randomId = UUID.randomUUID();
+    SeedA left = new SeedA(
+      randomId,
+      new SeedB(1, 'a', UUID.randomUUID(), "Hello World"),
+      Collections.singletonList(new SeedB(1234, 'b', randomId, "World")),
+      MapUtil.of("TestingA", Collections.singleton(new SeedB(1234567, 'd', randomId, "Google"))));
+    SeedA right = new SeedA(
+      randomId,
+      new SeedB(123, 'a', randomId, "Hello World"),
+      Collections.singletonList(new SeedB(1234, 'b', UUID.randomUUID(), "World")),
+      MapUtil.of("TestingA", Collections.singleton(new SeedB(1234567, 'z', randomId, "Google"))));
+
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedA.class, SeedA.LOOKUP)
+      .withLookup(SeedB.class, SeedB.LOOKUP)
+      .build();
+
+    List<Change<Object>> streamedChanges = new ArrayList<>();
+    gulf.findChanges(left, right, streamedChanges::add);
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(4, streamedChanges.size());
+    Assertions.assertEquals(changes.size(), streamedChanges.size());
+
+    Iterator<Change<Object>> changeIterator = changes.iterator();
+    for (Change<Object> streamedChange : streamedChanges) {
+      Change<Object> change = changeIterator.next();
+      Assertions.assertEquals(change.getClass(), streamedChange.getClass());
+      Assertions.assertEquals(change.path().toFullPath(), streamedChange.path().toFullPath());
+    }
+  }
 }
@@ -25,10 +25,13 @@
 package dev.derklaro.gulf;
 
 import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.finder.defaults.NumberDiffFinder;
+import dev.derklaro.gulf.type.TypeMatchers;
 import dev.derklaro.gulf.util.SomeNumber;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -109,4 +112,34 @@ void testUnpredictableCompare() {
     Assertions.assertInstanceOf(SomeNumber.class, change.leftElement());
     Assertions.assertInstanceOf(SomeNumber.class, change.rightElement());
   }
+
+  @Test
+  void testMixedTypeCompare() {
+    // numbers from java.* are compared by equality by default, compare them by their value instead
+    Gulf gulf = Gulf.builder().withDiffFinder(TypeMatchers.extending(Number.class), new NumberDiffFinder()).build();
+
+    // integral numbers of different types
+    Assertions.assertFalse(gulf.hasChanges(Number.class, 10, 10L));
+    Assertions.assertFalse(gulf.hasChanges(Number.class, (byte) -5, new AtomicLong(-5)));
+    Assertions.assertTrue(gulf.hasChanges(Number.class, 10, 11L));
+
+    // integral and floating numbers
+    Assertions.assertFalse(gulf.hasChanges(Number.class, 10L, 10.0D));
+    Assertions.assertFalse(gulf.hasChanges(Number.class, 0, -0.0F));
+    Assertions.assertTrue(gulf.hasChanges(Number.class, 10L, 10.5D));
+    Assertions.assertTrue(gulf.hasChanges(Number.class, 10L, Double.NaN));
+    Assertions.assertTrue(gulf.hasChanges(Number.class, Long.MAX_VALUE, 0x1p63));
+    Assertions.assertFalse(gulf.hasChanges(Number.class, Long.MIN_VALUE, -0x1p63));
+    Assertions.assertFalse(gulf.hasChanges(Number.class, 1L << 60, 0x1p60));
+    Assertions.assertTrue(gulf.hasChanges(Number.class, (1L << 53) + 1, 0x1p53));
+
+    // floating numbers of different types
+    Assertions.assertFalse(gulf.hasChanges(Number.class, 1.5F, 1.5D));
+    Assertions.assertTrue(gulf.hasChanges(Number.class, 0.1F, 0.1D));
+    Assertions.assertFalse(gulf.hasChanges(Number.class, Float.NaN, Double.NaN));
+
+    // big numbers
+    Assertions.assertFalse(gulf.hasChanges(Number.class, BigInteger.TEN, 10));
+    Assertions.assertFalse(gulf.hasChanges(Number.class, new BigDecimal("1.50"), 1.5D));
+  }
 }
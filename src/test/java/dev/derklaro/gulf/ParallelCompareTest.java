@@ -0,0 +1,231 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.MemoizedChange;
+import dev.derklaro.gulf.diff.array.ArrayChange;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.map.MapChange;
+import dev.derklaro.gulf.diff.map.MapEntryChange;
+import dev.derklaro.gulf.seed.SeedE;
+import dev.derklaro.gulf.seed.SeedF;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class ParallelCompareTest {
+
+  private static final int NODES = 5_000;
+
+  // the workers of the pool are daemon threads, no need to shut it down
+  private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+  private static SeedF buildGraph(boolean modified, boolean shareChild) {
+    List<SeedE> nodes = new ArrayList<>();
+    Map<String, SeedE> index = new HashMap<>();
+
+    // the nodes of the list are referenced from the map as well, some of them share a child which points back to one
+    // of the nodes, so the graph contains cycles
+    SeedE shared = new SeedE(modified ? "shared-changed" : "shared");
+    for (int idx = 0; idx < NODES; idx++) {
+      String name = modified && idx % 7 == 0 ? "changed-" + idx : "node-" + idx;
+      SeedE node = new SeedE(name).withChildren(shareChild && idx % 10 == 0 ? shared : null, null);
+      nodes.add(node);
+      if (!modified || idx % 11 != 0) {
+        index.put("key-" + idx, node);
+      }
+    }
+
+    if (modified) {
+      nodes.add(new SeedE("added"));
+      index.put("added", new SeedE("added"));
+    }
+    return new SeedF("root", nodes, index);
+  }
+
+  private static void describe(Collection<? extends Change<?>> changes, List<String> out) {
+    for (Change<?> change : changes) {
+      out.add(change.getClass().getSimpleName()
+        + " " + change.path().toFullPath()
+        + " " + change.leftElement()
+        + " " + change.rightElement());
+
+      // describe the nested changes as well
+      if (change instanceof CollectionChange<?, ?>) {
+        describe(((CollectionChange<?, ?>) change).elementChanges(), out);
+      } else if (change instanceof ArrayChange<?>) {
+        describe(((ArrayChange<?>) change).elementChanges(), out);
+      } else if (change instanceof ArrayElementChange<?>) {
+        describe(((ArrayElementChange<?>) change).changes(), out);
+      } else if (change instanceof MapChange<?, ?, ?>) {
+        describe(((MapChange<?, ?, ?>) change).entryChanges(), out);
+      } else if (change instanceof MapEntryChange<?, ?>) {
+        describe(((MapEntryChange<?, ?>) change).changes(), out);
+      } else if (change instanceof MemoizedChange<?>) {
+        describe(((MemoizedChange<?>) change).changes(), out);
+      }
+    }
+  }
+
+  private static List<SeedE> buildNodes(int count, boolean modified) {
+    List<SeedE> nodes = new ArrayList<>();
+    for (int idx = 0; idx < count; idx++) {
+      nodes.add(new SeedE(modified && idx % 13 == 0 ? "changed-" + idx : "node-" + idx));
+    }
+    return nodes;
+  }
+
+  private static List<String> describeChanges(Gulf gulf, Object left, Object right) {
+    List<String> description = new ArrayList<>();
+    describe(gulf.findChanges(left, right), description);
+    return description;
+  }
+
+  private static void assertSameChanges(Gulf gulf, Object left, Object right) {
+    List<String> sequential = new ArrayList<>();
+    describe(gulf.findChanges(left, right), sequential);
+    Assertions.assertFalse(sequential.isEmpty());
+
+    // run multiple times as the scheduling of the branches is different each time
+    for (int run = 0; run < 5; run++) {
+      List<String> parallel = new ArrayList<>();
+      describe(gulf.findChangesParallel(left, right, POOL), parallel);
+      Assertions.assertEquals(sequential, parallel);
+    }
+  }
+
+  @Test
+  void testParallelMatchesSequential() {
+    Gulf gulf = Gulf.builder()
+      .parallelThreshold(64)
+      .withLookup(SeedE.class, SeedE.LOOKUP)
+      .withLookup(SeedF.class, SeedF.LOOKUP)
+      .build();
+    assertSameChanges(gulf, buildGraph(false, true), buildGraph(true, true));
+  }
+
+  @Test
+  void testParallelMatchesSequentialIterative() {
+    Gulf gulf = Gulf.builder()
+      .parallelThreshold(64)
+      .withIterativeTraversal()
+      .withLookup(SeedE.class, SeedE.LOOKUP)
+      .withLookup(SeedF.class, SeedF.LOOKUP)
+      .build();
+    assertSameChanges(gulf, buildGraph(false, true), buildGraph(true, true));
+  }
+
+  @Test
+  void testParallelMatchesSequentialMemoized() {
+    Gulf gulf = Gulf.builder()
+      .parallelThreshold(64)
+      .withLookup(SeedE.class, SeedE.LOOKUP)
+      .withLookup(SeedF.class, SeedF.LOOKUP)
+      .build();
+    assertSameChanges(gulf, buildGraph(false, true), buildGraph(true, true));
+  }
+
+  @Test
+  void testParallelMatchesSequentialWithoutCycleDetection() {
+    Gulf gulf = Gulf.builder()
+      .parallelThreshold(64)
+      .withoutCycleDetection()
+      .withoutMemoizedSubgraphs()
+      .withLookup(SeedE.class, SeedE.LOOKUP)
+      .withLookup(SeedF.class, SeedF.LOOKUP)
+      .build();
+    assertSameChanges(gulf, buildGraph(false, false), buildGraph(true, false));
+  }
+
+  @Test
+  void testParallelWithoutChanges() {
+    Gulf gulf = Gulf.builder()
+      .parallelThreshold(64)
+      .withLookup(SeedE.class, SeedE.LOOKUP)
+      .withLookup(SeedF.class, SeedF.LOOKUP)
+      .build();
+    Assertions.assertTrue(gulf.findChangesParallel(buildGraph(false, true), buildGraph(false, true), POOL).isEmpty());
+  }
+
+  @Test
+  void testChunkedListsAndArrays() {
+    Gulf sequential = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      Gulf chunked = Gulf.builder()
+        .parallelThreshold(16)
+        .withParallelChunks(executor)
+        .withLookup(SeedE.class, SeedE.LOOKUP)
+        .build();
+
+      // the right list has more elements than the left one
+      List<SeedE> left = buildNodes(1_000, false);
+      List<SeedE> right = buildNodes(1_010, true);
+      List<String> expected = describeChanges(sequential, left, right);
+      Assertions.assertFalse(expected.isEmpty());
+      Assertions.assertEquals(expected, describeChanges(chunked, left, right));
+
+      // the left array has more elements than the right one
+      SeedE[] leftArray = right.toArray(new SeedE[0]);
+      SeedE[] rightArray = left.toArray(new SeedE[0]);
+      Assertions.assertEquals(describeChanges(sequential, leftArray, rightArray), describeChanges(chunked, leftArray, rightArray));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testNestedChunksOnBoundedExecutor() {
+    Gulf sequential = Gulf.builder().withLookup(SeedE.class, SeedE.LOOKUP).build();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Gulf chunked = Gulf.builder()
+        .parallelThreshold(16)
+        .withParallelChunks(executor)
+        .withLookup(SeedE.class, SeedE.LOOKUP)
+        .build();
+
+      // the chunks of the outer list fork chunks of the inner lists onto the same single thread
+      List<List<SeedE>> left = new ArrayList<>();
+      List<List<SeedE>> right = new ArrayList<>();
+      for (int idx = 0; idx < 100; idx++) {
+        left.add(buildNodes(100, false));
+        right.add(buildNodes(100, idx % 3 == 0));
+      }
+      Assertions.assertEquals(describeChanges(sequential, left, right), describeChanges(chunked, left, right));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
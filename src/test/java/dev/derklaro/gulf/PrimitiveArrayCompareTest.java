@@ -0,0 +1,98 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.array.IndexRangeChange;
+import dev.derklaro.gulf.diff.array.IndexRangeKind;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.diff.array.PrimitiveArrayChange;
+import java.util.Collection;
+import java.util.Iterator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class PrimitiveArrayCompareTest {
+
+  @Test
+  void testEqualArrays() {
+    Gulf gulf = Gulf.builder().build();
+
+    Assertions.assertTrue(gulf.findChanges(new int[]{1, 2, 3}, new int[]{1, 2, 3}).isEmpty());
+    Assertions.assertTrue(gulf.findChanges(new byte[1024], new byte[1024]).isEmpty());
+    Assertions.assertTrue(gulf.findChanges(new double[]{Double.NaN}, new double[]{Double.NaN}).isEmpty());
+    Assertions.assertFalse(gulf.hasChanges(new long[]{1L, 2L}, new long[]{1L, 2L}));
+  }
+
+  @Test
+  void testChangedElements() {
+    Gulf gulf = Gulf.builder().build();
+
+    byte[] left = new byte[4096];
+    byte[] right = new byte[4096];
+    right[17] = 1;
+    right[18] = 1;
+    right[4000] = 2;
+
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    PrimitiveArrayChange<?> change = Assertions.assertInstanceOf(PrimitiveArrayChange.class, changes.iterator().next());
+    Assertions.assertSame(left, change.leftElement());
+    Assertions.assertSame(right, change.rightElement());
+
+    Iterator<IndexedChange<Object>> iterator = change.elementChanges().iterator();
+    this.assertRange(iterator.next(), 17, 19, IndexRangeKind.MODIFIED);
+    this.assertRange(iterator.next(), 4000, 4001, IndexRangeKind.MODIFIED);
+    Assertions.assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void testAddedAndRemovedElements() {
+    Gulf gulf = Gulf.builder().build();
+
+    Collection<Change<Object>> changes = gulf.findChanges(new double[]{1D, 5D}, new double[]{1D, 2D, 3D, 4D});
+    PrimitiveArrayChange<?> change = Assertions.assertInstanceOf(PrimitiveArrayChange.class, changes.iterator().next());
+
+    Iterator<IndexedChange<Object>> iterator = change.elementChanges().iterator();
+    this.assertRange(iterator.next(), 1, 2, IndexRangeKind.MODIFIED);
+    this.assertRange(iterator.next(), 2, 4, IndexRangeKind.ADDED);
+    Assertions.assertFalse(iterator.hasNext());
+
+    changes = gulf.findChanges(new int[]{1, 2, 3}, new int[0]);
+    change = Assertions.assertInstanceOf(PrimitiveArrayChange.class, changes.iterator().next());
+    this.assertRange(change.elementChanges().iterator().next(), 0, 3, IndexRangeKind.REMOVED);
+
+    Assertions.assertTrue(gulf.hasChanges(new char[]{'a', 'b'}, new char[]{'a'}));
+  }
+
+  private void assertRange(IndexedChange<Object> change, int fromIndex, int toIndex, IndexRangeKind kind) {
+    IndexRangeChange<?> range = Assertions.assertInstanceOf(IndexRangeChange.class, change);
+    Assertions.assertEquals(fromIndex, range.fromIndex());
+    Assertions.assertEquals(toIndex, range.toIndex());
+    Assertions.assertEquals(kind, range.kind());
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.Changes;
+import dev.derklaro.gulf.finder.reflection.CompiledDiffFinder;
+import dev.derklaro.gulf.seed.SeedB;
+import dev.derklaro.gulf.seed.SeedC;
+import dev.derklaro.gulf.seed.SeedH;
+import dev.derklaro.gulf.type.TypeMatchers;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+final class PrimitiveFieldCompareTest {
+
+  @Test
+  void testNoChange() {
+    Gulf gulf = Gulf.builder().withLookup(SeedC.class, SeedC.LOOKUP).build();
+
+    SeedC left = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, Float.NaN, Double.NaN);
+    SeedC right = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, Float.NaN, Double.NaN);
+
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+  }
+
+  @Test
+  void testAllChanged() {
+    Gulf gulf = Gulf.builder().withLookup(SeedC.class, SeedC.LOOKUP).build();
+
+    SeedC left = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, 0F, 0D);
+    SeedC right = new SeedC(false, (byte) 2, (short) 3, 'd', 4, 5L, -0F, 1.5D);
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(8, changes.size());
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+
+    Iterator<Change<Object>> iterator = changes.iterator();
+    this.assertChange(iterator.next(), "$.z", true, false);
+    this.assertChange(iterator.next(), "$.b", (byte) 1, (byte) 2);
+    this.assertChange(iterator.next(), "$.s", (short) 2, (short) 3);
+    this.assertChange(iterator.next(), "$.c", 'c', 'd');
+    this.assertChange(iterator.next(), "$.i", 3, 4);
+    this.assertChange(iterator.next(), "$.l", 4L, 5L);
+    this.assertChange(iterator.next(), "$.f", 0F, -0F);
+    this.assertChange(iterator.next(), "$.d", 0D, 1.5D);
+  }
+
+  @Test
+  void testCustomPrimitiveDiffFinder() {
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedC.class, SeedC.LOOKUP)
+      .withDiffFinder(TypeMatchers.exact(int.class), (g, p, t, l, r) -> Changes.none())
+      .build();
+
+    SeedC left = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, 5F, 6D);
+    SeedC right = new SeedC(true, (byte) 1, (short) 2, 'c', 4, 4L, 5F, 6D);
+
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+  }
+
+  @Test
+  void testCompiledDiffFinder() {
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedC.class, SeedC.LOOKUP)
+      .defaultDiffFinder(new CompiledDiffFinder())
+      .build();
+
+    SeedC left = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, Float.NaN, 6D);
+    SeedC right = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, Float.NaN, 6D);
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+
+    SeedC changed = new SeedC(true, (byte) 1, (short) 2, 'd', 3, 5L, Float.NaN, 6D);
+    Assertions.assertTrue(gulf.hasChanges(left, changed));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, changed);
+    Assertions.assertEquals(2, changes.size());
+
+    Iterator<Change<Object>> iterator = changes.iterator();
+    this.assertChange(iterator.next(), "$.c", 'c', 'd');
+    this.assertChange(iterator.next(), "$.l", 4L, 5L);
+  }
+
+  @Test
+  void testCompiledDiffFinderWithReferenceFields() {
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedB.class, SeedB.LOOKUP)
+      .defaultDiffFinder(new CompiledDiffFinder())
+      .build();
+
+    UUID id = UUID.randomUUID();
+    SeedB left = new SeedB(1, 'a', id, "Hello");
+    Assertions.assertFalse(gulf.hasChanges(left, new SeedB(1, 'a', id, "Hello")));
+    Assertions.assertTrue(gulf.hasChanges(left, new SeedB(1, 'a', id, "World")));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, new SeedB(2, 'a', id, "World"));
+    Assertions.assertEquals(2, changes.size());
+
+    Iterator<Change<Object>> iterator = changes.iterator();
+    this.assertChange(iterator.next(), "$.i", 1, 2);
+    this.assertChange(iterator.next(), "$.str", "Hello", "World");
+  }
+
+  @Test
+  void testCompiledDiffFinderMixedFields() {
+    Gulf gulf = Gulf.builder()
+      .withLookup(SeedH.class, SeedH.LOOKUP)
+      .defaultDiffFinder(new CompiledDiffFinder())
+      .build();
+
+    // the reference fields before the first primitive difference must still be compared in declaration order
+    SeedH left = new SeedH("Hello", 1, "left", 2L);
+    Collection<Change<Object>> changes = gulf.findChanges(left, new SeedH("World", 1, "right", 3L));
+    Assertions.assertEquals(3, changes.size());
+
+    Iterator<Change<Object>> iterator = changes.iterator();
+    this.assertChange(iterator.next(), "$.name", "Hello", "World");
+    this.assertChange(iterator.next(), "$.description", "left", "right");
+    this.assertChange(iterator.next(), "$.size", 2L, 3L);
+
+    changes = gulf.findChanges(left, new SeedH("World", 2, "left", 3L));
+    Assertions.assertEquals(3, changes.size());
+
+    iterator = changes.iterator();
+    this.assertChange(iterator.next(), "$.name", "Hello", "World");
+    this.assertChange(iterator.next(), "$.count", 1, 2);
+    this.assertChange(iterator.next(), "$.size", 2L, 3L);
+
+    changes = gulf.findChanges(left, new SeedH("Hello", 1, "left", 3L));
+    Assertions.assertEquals(1, changes.size());
+    this.assertChange(changes.iterator().next(), "$.size", 2L, 3L);
+  }
+
+  @Test
+  void testSinkExceptionIsPropagated() {
+    Gulf reflectionGulf = Gulf.builder().withLookup(SeedC.class, SeedC.LOOKUP).build();
+    Gulf compiledGulf = Gulf.builder()
+      .withLookup(SeedC.class, SeedC.LOOKUP)
+      .defaultDiffFinder(new CompiledDiffFinder())
+      .build();
+
+    // an integral, a floating and a boolean field changed, each must pass the exception of the sink to the caller
+    SeedC left = new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, 5F, 6D);
+    SeedC[] changed = new SeedC[]{
+      new SeedC(true, (byte) 1, (short) 2, 'c', 4, 4L, 5F, 6D),
+      new SeedC(true, (byte) 1, (short) 2, 'c', 3, 4L, 5F, 7D),
+      new SeedC(false, (byte) 1, (short) 2, 'c', 3, 4L, 5F, 6D)};
+    for (Gulf gulf : new Gulf[]{reflectionGulf, compiledGulf}) {
+      for (SeedC right : changed) {
+        IllegalStateException exception = Assertions.assertThrows(
+          IllegalStateException.class,
+          () -> gulf.findChanges(left, right, change -> {
+            throw new IllegalStateException(change.path().toFullPath());
+          }));
+        Assertions.assertTrue(exception.getMessage().startsWith("$."));
+      }
+    }
+  }
+
+  private void assertChange(Change<Object> change, String path, Object left, Object right) {
+    Assertions.assertEquals(path, change.path().toFullPath());
+    Assertions.assertEquals(left, change.leftElement());
+    Assertions.assertEquals(right, change.rightElement());
+  }
+}
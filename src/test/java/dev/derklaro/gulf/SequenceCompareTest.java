@@ -0,0 +1,137 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.array.ArrayChange;
+import dev.derklaro.gulf.diff.array.ArrayElementAddOrRemove;
+import dev.derklaro.gulf.diff.array.ArrayElementChange;
+import dev.derklaro.gulf.diff.array.ArrayElementMove;
+import dev.derklaro.gulf.diff.array.CollectionChange;
+import dev.derklaro.gulf.diff.array.IndexedChange;
+import dev.derklaro.gulf.finder.defaults.SequenceDiffFinder;
+import dev.derklaro.gulf.type.TypeMatchers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("unchecked")
+final class SequenceCompareTest {
+
+  private static Gulf sequenceGulf() {
+    SequenceDiffFinder diffFinder = new SequenceDiffFinder();
+    return Gulf.builder()
+      .withDiffFinder(TypeMatchers.extending(List.class), diffFinder)
+      .withDiffFinder(TypeMatchers.exact(String[].class), diffFinder)
+      .build();
+  }
+
+  private static Collection<IndexedChange<Object>> elementChanges(Collection<Change<Object>> changes) {
+    Assertions.assertEquals(1, changes.size());
+    CollectionChange<Object, ?> change = Assertions.assertInstanceOf(CollectionChange.class, changes.iterator().next());
+    return change.elementChanges();
+  }
+
+  @Test
+  void testNoChange() {
+    Gulf gulf = sequenceGulf();
+
+    List<String> list = Arrays.asList("Hello", "World", "!");
+    Assertions.assertTrue(gulf.findChanges(list, new ArrayList<>(list)).isEmpty());
+    Assertions.assertFalse(gulf.hasChanges(list, new ArrayList<>(list)));
+  }
+
+  @Test
+  void testInsertAtHead() {
+    Gulf gulf = sequenceGulf();
+
+    List<Integer> left = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      left.add(i);
+    }
+    List<Integer> right = new ArrayList<>(left);
+    right.add(0, -1);
+
+    Collection<IndexedChange<Object>> elementChanges = elementChanges(gulf.findChanges(left, right));
+    Assertions.assertEquals(1, elementChanges.size());
+
+    ArrayElementAddOrRemove<Object> add = Assertions.assertInstanceOf(
+      ArrayElementAddOrRemove.class,
+      elementChanges.iterator().next());
+    Assertions.assertTrue(add.elementAdded());
+    Assertions.assertEquals(0, add.index());
+    Assertions.assertEquals(-1, add.rightElement());
+  }
+
+  @Test
+  void testDeleteAndModify() {
+    Gulf gulf = sequenceGulf();
+
+    List<String> left = Arrays.asList("a", "b", "c", "d", "e");
+    List<String> right = Arrays.asList("a", "c", "x", "e");
+
+    Collection<IndexedChange<Object>> elementChanges = elementChanges(gulf.findChanges(left, right));
+    Assertions.assertEquals(2, elementChanges.size());
+
+    ArrayElementAddOrRemove<Object> remove = Assertions.assertInstanceOf(
+      ArrayElementAddOrRemove.class,
+      elementChanges.iterator().next());
+    Assertions.assertTrue(remove.elementRemoved());
+    Assertions.assertEquals(1, remove.index());
+
+    ArrayElementChange<Object> modify = Assertions.assertInstanceOf(
+      ArrayElementChange.class,
+      elementChanges.stream().skip(1).findFirst().orElse(null));
+    Assertions.assertEquals(3, modify.index());
+    Assertions.assertEquals("d", modify.leftElement());
+    Assertions.assertEquals("x", modify.rightElement());
+    Assertions.assertEquals("$.3", modify.changes().iterator().next().path().toFullPath());
+  }
+
+  @Test
+  void testMove() {
+    Gulf gulf = sequenceGulf();
+
+    String[] left = new String[]{"a", "b", "c", "d"};
+    String[] right = new String[]{"b", "c", "d", "a"};
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    ArrayChange<Object> change = Assertions.assertInstanceOf(ArrayChange.class, changes.iterator().next());
+    Assertions.assertEquals(1, change.elementChanges().size());
+
+    ArrayElementMove<Object> move = Assertions.assertInstanceOf(
+      ArrayElementMove.class,
+      change.elementChanges().iterator().next());
+    Assertions.assertEquals("a", move.leftElement());
+    Assertions.assertEquals(0, move.fromIndex());
+    Assertions.assertEquals(3, move.toIndex());
+  }
+}
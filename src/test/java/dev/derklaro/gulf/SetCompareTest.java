@@ -0,0 +1,193 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf;
+
+import dev.derklaro.gulf.diff.Change;
+import dev.derklaro.gulf.diff.set.BitVectorChange;
+import dev.derklaro.gulf.diff.set.SetChange;
+import dev.derklaro.gulf.seed.SeedB;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("unchecked")
+final class SetCompareTest {
+
+  @Test
+  void testDifferentIterationOrder() {
+    Gulf gulf = Gulf.builder().build();
+
+    Set<String> left = new LinkedHashSet<>(Arrays.asList("Hello", "World", "!"));
+    Set<String> right = new LinkedHashSet<>(Arrays.asList("!", "World", "Hello"));
+
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+  }
+
+  @Test
+  void testAddedAndRemovedElements() {
+    Gulf gulf = Gulf.builder().build();
+
+    Set<String> left = new HashSet<>(Arrays.asList("Hello", "World", "!"));
+    Set<String> right = new HashSet<>(Arrays.asList("Hello", "World", "?", ":)"));
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    SetChange<Object, ?> change = Assertions.assertInstanceOf(SetChange.class, changes.iterator().next());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList("?", ":)")), new HashSet<>(change.addedElements()));
+    Assertions.assertEquals(Collections.singletonList("!"), change.removedElements());
+  }
+
+  @Test
+  void testStructuralFallback() {
+    UUID id = UUID.randomUUID();
+    Gulf gulf = Gulf.builder().withLookup(SeedB.class, SeedB.LOOKUP).build();
+
+    // SeedB does not implement equals, the elements must be matched by their fields
+    Set<SeedB> left = new HashSet<>(Arrays.asList(new SeedB(1, 'a', id, "Hello"), new SeedB(2, 'b', id, "World")));
+    Set<SeedB> right = new HashSet<>(Arrays.asList(new SeedB(2, 'b', id, "World"), new SeedB(1, 'a', id, "Hello")));
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+
+    SeedB added = new SeedB(3, 'c', id, "!");
+    right.add(added);
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    SetChange<Object, ?> change = Assertions.assertInstanceOf(SetChange.class, changes.iterator().next());
+    Assertions.assertEquals(Collections.singletonList(added), change.addedElements());
+    Assertions.assertTrue(change.removedElements().isEmpty());
+  }
+
+  @Test
+  void testStructuralFallbackBuckets() {
+    UUID id = UUID.randomUUID();
+    Gulf gulf = Gulf.builder().withLookup(SeedB.class, SeedB.LOOKUP).build();
+
+    Set<SeedB> left = new HashSet<>();
+    Set<SeedB> right = new HashSet<>();
+    for (int idx = 0; idx < 500; idx++) {
+      left.add(new SeedB(idx, 'a', id, "element-" + idx));
+      right.add(new SeedB(idx, 'a', id, "element-" + idx));
+    }
+
+    // each deep comparison of two elements resolves the diff finder of the element type. only elements with the
+    // same primitive field values are compared, matching them against all other elements takes tens of thousands
+    long lookups = gulf.diffFinderCacheHits() + gulf.diffFinderCacheMisses();
+    Assertions.assertTrue(gulf.findChanges(left, right).isEmpty());
+    long performedLookups = gulf.diffFinderCacheHits() + gulf.diffFinderCacheMisses() - lookups;
+    Assertions.assertTrue(performedLookups < 5_000, () -> performedLookups + " diff finder lookups");
+    Assertions.assertFalse(gulf.hasChanges(left, right));
+
+    SeedB changedString = new SeedB(7, 'a', id, "changed");
+    SeedB changedInt = new SeedB(1000, 'a', id, "element-8");
+    right.removeIf(element -> element.i() == 7 || element.i() == 8);
+    right.add(changedString);
+    right.add(changedInt);
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    SetChange<Object, ?> change = Assertions.assertInstanceOf(SetChange.class, changes.iterator().next());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(changedString, changedInt)), new HashSet<>(change.addedElements()));
+    Assertions.assertEquals(2, change.removedElements().size());
+  }
+
+  @Test
+  void testSortedSetMergeWalk() {
+    Gulf gulf = Gulf.builder().build();
+
+    SortedSet<Integer> left = new TreeSet<>(Arrays.asList(1, 2, 4, 8));
+    SortedSet<Integer> right = new TreeSet<>(Arrays.asList(2, 3, 4, 9, 10));
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    SetChange<Object, ?> change = Assertions.assertInstanceOf(SetChange.class, changes.iterator().next());
+    Assertions.assertEquals(Arrays.asList(3, 9, 10), change.addedElements());
+    Assertions.assertEquals(Arrays.asList(1, 8), change.removedElements());
+
+    Assertions.assertFalse(gulf.hasChanges(left, new TreeSet<>(left)));
+
+    // differently sorted sets fall back to the hash lookup
+    SortedSet<Integer> reversed = new TreeSet<>(Comparator.reverseOrder());
+    reversed.addAll(left);
+    Assertions.assertFalse(gulf.hasChanges(left, reversed));
+    Assertions.assertTrue(gulf.findChanges(left, reversed).isEmpty());
+  }
+
+  @Test
+  void testEnumSet() {
+    Gulf gulf = Gulf.builder().build();
+
+    Set<TimeUnit> left = EnumSet.of(TimeUnit.SECONDS, TimeUnit.MINUTES, TimeUnit.HOURS);
+    Set<TimeUnit> right = EnumSet.of(TimeUnit.NANOSECONDS, TimeUnit.MINUTES, TimeUnit.HOURS, TimeUnit.DAYS);
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertFalse(gulf.hasChanges(left, EnumSet.copyOf(left)));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    BitVectorChange<Object> change = Assertions.assertInstanceOf(BitVectorChange.class, changes.iterator().next());
+    Assertions.assertEquals(2, change.addedCount());
+    Assertions.assertTrue(change.addedBits().get(TimeUnit.NANOSECONDS.ordinal()));
+    Assertions.assertTrue(change.addedBits().get(TimeUnit.DAYS.ordinal()));
+    Assertions.assertEquals(1, change.removedCount());
+    Assertions.assertTrue(change.removedBits().get(TimeUnit.SECONDS.ordinal()));
+  }
+
+  @Test
+  void testBitSet() {
+    Gulf gulf = Gulf.builder().build();
+
+    BitSet left = new BitSet();
+    left.set(0, 100);
+    BitSet right = new BitSet();
+    right.set(10, 200);
+    Assertions.assertTrue(gulf.hasChanges(left, right));
+    Assertions.assertFalse(gulf.hasChanges(left, left.clone()));
+
+    Collection<Change<Object>> changes = gulf.findChanges(left, right);
+    Assertions.assertEquals(1, changes.size());
+
+    BitVectorChange<Object> change = Assertions.assertInstanceOf(BitVectorChange.class, changes.iterator().next());
+    Assertions.assertEquals(100, change.addedBits().nextSetBit(0));
+    Assertions.assertEquals(200, change.addedBits().nextClearBit(100));
+    Assertions.assertEquals(0, change.removedBits().nextSetBit(0));
+    Assertions.assertEquals(10, change.removedBits().nextClearBit(0));
+  }
+}
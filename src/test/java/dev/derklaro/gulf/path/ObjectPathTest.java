@@ -24,6 +24,7 @@
 
 package dev.derklaro.gulf.path;
 
+import java.util.Arrays;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -91,4 +92,92 @@ void testMultiplePathAppends() {
     Assertions.assertEquals(2, worldPath.elements().size());
     Assertions.assertEquals("$.test.world", worldPath.toFullPath());
   }
+
+  @Test
+  void testPathParentAndDepth() {
+    ObjectPathFactory factory = new DefaultPathFactory("$", ".");
+
+    ObjectPath root = factory.beginPath();
+    Assertions.assertSame(root, factory.beginPath());
+    Assertions.assertNull(root.parent());
+    Assertions.assertEquals(0, root.depth());
+
+    ObjectPath worldPath = root.append("test").append("world");
+    Assertions.assertEquals(2, worldPath.depth());
+    Assertions.assertEquals("test", worldPath.parent().currentSegment());
+    Assertions.assertSame(root, worldPath.parent().parent());
+  }
+
+  @Test
+  void testPathEquality() {
+    ObjectPathFactory factory = new DefaultPathFactory("$", ".");
+
+    ObjectPath left = factory.beginPath().append("test").append("world");
+    ObjectPath right = factory.beginPath().append("test").append("world");
+    Assertions.assertEquals(left, right);
+    Assertions.assertEquals(left.hashCode(), right.hashCode());
+    Assertions.assertEquals(Arrays.hashCode(new String[]{"test", "world"}), left.hashCode());
+
+    Assertions.assertNotEquals(left, factory.beginPath().append("world").append("test"));
+    Assertions.assertNotEquals(left, factory.beginPath().append("test"));
+  }
+
+  @Test
+  void testPathFrames() {
+    ObjectPathFactory factory = new DefaultPathFactory("$", ".");
+
+    ObjectPath frame = factory.beginPath().append("test").newFrame();
+    Assertions.assertTrue(frame.frame());
+
+    ObjectPath helloPath = frame.moveFrame("hello").reify();
+    Assertions.assertFalse(helloPath.frame());
+    Assertions.assertEquals("$.test.hello", helloPath.toFullPath());
+
+    ObjectPath nestedPath = frame.moveFrame("world").append("nested");
+    Assertions.assertEquals("$.test.world", frame.toFullPath());
+    Assertions.assertEquals("$.test.world.nested", nestedPath.toFullPath());
+
+    // moving the frame must not affect the paths created from it
+    frame.moveFrame("other");
+    Assertions.assertEquals("$.test.hello", helloPath.toFullPath());
+    Assertions.assertEquals("$.test.world.nested", nestedPath.toFullPath());
+    Assertions.assertThrows(IllegalStateException.class, () -> helloPath.moveFrame("test"));
+  }
+
+  @Test
+  void testTypedSegments() {
+    ObjectPathFactory factory = new DefaultPathFactory("$", ".");
+
+    ObjectPath root = factory.beginPath();
+    Assertions.assertEquals(PathSegmentType.ROOT, root.segmentType());
+
+    ObjectPath indexPath = root.append("values").appendIndex(12);
+    Assertions.assertEquals(PathSegmentType.INDEX, indexPath.segmentType());
+    Assertions.assertEquals(12, indexPath.index());
+    Assertions.assertEquals("12", indexPath.currentSegment());
+    Assertions.assertThrows(IllegalStateException.class, indexPath::key);
+
+    Object key = new Object();
+    ObjectPath keyPath = indexPath.appendKey(key);
+    Assertions.assertEquals(PathSegmentType.KEY, keyPath.segmentType());
+    Assertions.assertSame(key, keyPath.key());
+    Assertions.assertThrows(IllegalStateException.class, keyPath::index);
+
+    // typed segments are not equal to field segments with the same string representation
+    Assertions.assertEquals(root.append("values").appendIndex(12), indexPath);
+    Assertions.assertNotEquals(root.append("values").append("12"), indexPath);
+    Assertions.assertEquals("$.values.12", root.append("values").append("12").toFullPath());
+  }
+
+  @Test
+  void testJsonPointer() {
+    ObjectPathFactory factory = new DefaultPathFactory("$", ".");
+
+    ObjectPath root = factory.beginPath();
+    Assertions.assertEquals("", root.toJsonPointer());
+
+    ObjectPath path = root.append("values").appendIndex(0).appendKey("a/b~c");
+    Assertions.assertEquals("/values/0/a~1b~0c", path.toJsonPointer());
+    Assertions.assertEquals("$.values.0.a/b~c", path.toFullPath());
+  }
 }
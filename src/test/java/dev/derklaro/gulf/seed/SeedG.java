@@ -0,0 +1,59 @@
+/*
+ * This file is part of gulf, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022 Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package dev.derklaro.gulf.seed;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class SeedG {
+
+  public static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final String name;
+  private List<SeedG> children = Collections.emptyList();
+  private Map<String, SeedG> named = Collections.emptyMap();
+  private SeedG[] array = new SeedG[0];
+
+  public SeedG(String name) {
+    this.name = name;
+  }
+
+  public SeedG withChildren(List<SeedG> children) {
+    this.children = children;
+    return this;
+  }
+
+  public SeedG withNamed(Map<String, SeedG> named) {
+    this.named = named;
+    return this;
+  }
+
+  public SeedG withArray(SeedG... array) {
+    this.array = array;
+    return this;
+  }
+}